@@ -0,0 +1,43 @@
+package com.todolist.todolist.benchmark;
+
+import com.todolist.todolist.TodolistApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts the application for a benchmark on its own in-memory H2 database.
+ */
+final class BenchmarkApplication {
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        return new SpringApplicationBuilder(TodolistApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments(database, properties));
+    }
+
+    static ConfigurableApplicationContext startWebServer(String database) {
+        return new SpringApplicationBuilder(TodolistApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(arguments(database));
+    }
+
+    private static String[] arguments(String database, String... properties) {
+        // Later entries win, so a benchmark can replace the defaults, e.g. with a file database
+        Map<String, String> arguments = new LinkedHashMap<>();
+        arguments.put("server.port", "0");
+        arguments.put("spring.datasource.url", "jdbc:h2:mem:" + database);
+        arguments.put("logging.level.root", "WARN");
+        arguments.put("todolist.metrics.hibernate-statistics", "true");
+        for (String property : properties) {
+            int separator = property.indexOf('=');
+            arguments.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+        return arguments.entrySet().stream().map(argument -> "--" + argument.getKey() + "=" + argument.getValue()).toArray(String[]::new);
+    }
+}
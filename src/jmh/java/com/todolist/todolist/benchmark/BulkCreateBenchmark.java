@@ -0,0 +1,91 @@
+package com.todolist.todolist.benchmark;
+
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.service.TaskService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares creating tasks one request at a time with the batched bulk path. The {@code tasks}
+ * counter is the number of tasks stored per second, independent of the batch size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkCreateBenchmark {
+    @Param({"1", "100", "10000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private JdbcTemplate jdbcTemplate;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long tasks;
+    }
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start("bulk-benchmark");
+        taskService = context.getBean(TaskService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTasks() {
+        jdbcTemplate.execute("truncate table task");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Task> bulkCreate(Counters counters) {
+        List<Task> created = taskService.createTasks(newTasks());
+        counters.tasks += created.size();
+        return created;
+    }
+
+    @Benchmark
+    public Task singleCreates(Counters counters) {
+        Task last = null;
+        for (Task task : newTasks()) {
+            last = taskService.createTask(task);
+        }
+        counters.tasks += batchSize;
+        return last;
+    }
+
+    private List<Task> newTasks() {
+        List<Task> tasks = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            Task task = new Task();
+            task.setTitle("Benchmark task " + i);
+            task.setDescription("Created by BulkCreateBenchmark");
+            task.setDueDate(LocalDate.of(2025, 9, 14));
+            task.setState(com.todolist.todolist.dto.State.READY);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,91 @@
+package com.todolist.todolist.benchmark;
+
+import com.todolist.todolist.dto.TaskFilter;
+import com.todolist.todolist.dto.TaskPage;
+import com.todolist.todolist.service.TaskCursor;
+import com.todolist.todolist.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtered listing against a table of several million rows. Due dates are spread over two years
+ * and states are spread evenly, so a one week range for one state matches about 0.3% of the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterQueryBenchmark {
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    @Param({"3000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskFilter doingThisWeek;
+    private TaskFilter dueThisWeek;
+    private TaskFilter doing;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void loadTable() {
+        context = BenchmarkApplication.start("filter-benchmark");
+        taskService = context.getBean(TaskService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                insert into task (id, title, description, due_date, state, version)
+                select x, 'Task ' || x, 'Description of task ' || x, dateadd('DAY', mod(x, 730), date '2025-01-01'), mod(x, 3), 0
+                from system_range(1, ?)
+                """, rows);
+        jdbcTemplate.execute("analyze");
+        LocalDate weekStart = START.plusDays(200);
+        doingThisWeek = new TaskFilter(com.todolist.todolist.dto.State.DOING, weekStart, weekStart.plusDays(6));
+        dueThisWeek = new TaskFilter(null, weekStart, weekStart.plusDays(6));
+        doing = new TaskFilter(com.todolist.todolist.dto.State.DOING, null, null);
+        // Nine tenths into the table, where a scan that cannot seek on (state, id) has the most to skip
+        deepCursor = TaskCursor.encode(rows / 10L * 9);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public TaskPage stateAndDueDateRange() {
+        return taskService.getTasks(doingThisWeek, null, 100);
+    }
+
+    @Benchmark
+    public TaskPage dueDateRange() {
+        return taskService.getTasks(dueThisWeek, null, 100);
+    }
+
+    @Benchmark
+    public TaskPage stateOnly() {
+        return taskService.getTasks(doing, null, 100);
+    }
+
+    @Benchmark
+    public TaskPage stateOnlyDeepCursor() {
+        return taskService.getTasks(doing, deepCursor, 100);
+    }
+
+    @Benchmark
+    public TaskPage unfiltered() {
+        return taskService.getTasks(TaskFilter.NONE, null, 100);
+    }
+}
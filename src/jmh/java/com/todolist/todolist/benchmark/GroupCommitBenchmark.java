@@ -0,0 +1,66 @@
+package com.todolist.todolist.benchmark;
+
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single creates from many threads at once, with and without group commit. The database is a
+ * file-backed H2 that writes every commit to its file, closer to a production database than the
+ * in-memory one, where commits are nearly free and there is little to gain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class GroupCommitBenchmark {
+    @Param({"false", "true"})
+    private boolean groupCommit;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start("group-commit-benchmark",
+                "spring.datasource.url=jdbc:h2:file:./build/jmh/group-commit;WRITE_DELAY=0",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "todolist.group-commit.enabled=" + groupCommit);
+        taskService = context.getBean(TaskService.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTasks() {
+        context.getBean(JdbcTemplate.class).execute("truncate table task");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Task create() {
+        Task task = new Task();
+        task.setTitle("Benchmark task");
+        task.setDescription("Created by GroupCommitBenchmark");
+        task.setDueDate(LocalDate.of(2025, 9, 14));
+        task.setState(com.todolist.todolist.dto.State.READY);
+        return taskService.createTask(task);
+    }
+}
@@ -0,0 +1,65 @@
+package com.todolist.todolist.benchmark;
+
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.service.TaskSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency against an index of a million tasks. Sample time mode reports the p99 directly.
+ * Words are drawn from a skewed vocabulary so the index has a few very common terms, as real
+ * task text does, alongside a long tail of rare ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"1000000"})
+    private int tasks;
+
+    @Param({"word7", "word12345", "word3 word42", "word12"})
+    private String query;
+
+    private TaskSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        // The repository is only used for the startup build, which the benchmark does by hand
+        index = new TaskSearchIndex(null);
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= tasks; id++) {
+            Task task = new Task();
+            task.setId(id);
+            task.setTitle(words(random, 4));
+            task.setDescription(words(random, 12));
+            index.index(task);
+        }
+    }
+
+    @Benchmark
+    public TaskSearchIndex.SearchHits firstPage() {
+        return index.search(query, 0, 20);
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            // Squaring a uniform value skews picks towards the low-numbered, common words
+            double skew = random.nextDouble();
+            text.append("word").append((int) (skew * skew * VOCABULARY)).append(' ');
+        }
+        return text.toString();
+    }
+}
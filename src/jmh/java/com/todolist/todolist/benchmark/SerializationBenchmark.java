@@ -0,0 +1,94 @@
+package com.todolist.todolist.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.todolist.todolist.TaskConfiguration;
+import com.todolist.todolist.dto.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of tasks, configured like the application: the JavaTimeModule from
+ * {@link TaskConfiguration} and ISO dates instead of timestamps. Runs once per wire format, and
+ * prints the encoded size of a task and of the list so the formats can be compared on bytes too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+    @Param({"100", "1000"})
+    private int listSize;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private Task task;
+    private List<Task> tasks;
+    private byte[] taskBytes;
+    private byte[] tasksBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (format.equals("cbor")) {
+            builder.factory(new CBORFactory());
+        }
+        objectMapper = builder
+                .modules(new TaskConfiguration().javaTimeModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        task = newTask(1);
+        tasks = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            tasks.add(newTask(i));
+        }
+        taskBytes = objectMapper.writeValueAsBytes(task);
+        tasksBytes = objectMapper.writeValueAsBytes(tasks);
+        System.out.printf("%n%s payload: %d bytes per task, %d bytes for %d tasks%n", format, taskBytes.length, tasksBytes.length, listSize);
+    }
+
+    @Benchmark
+    public byte[] serializeTask() throws Exception {
+        return objectMapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws Exception {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public Task deserializeTask() throws Exception {
+        return objectMapper.readValue(taskBytes, Task.class);
+    }
+
+    @Benchmark
+    public Task[] deserializeTaskList() throws Exception {
+        return objectMapper.readValue(tasksBytes, Task[].class);
+    }
+
+    private static Task newTask(int i) {
+        Task task = new Task();
+        task.setId((long) i);
+        task.setTitle("Benchmark task " + i);
+        task.setDescription("A description that is about as long as the ones real users write " + i);
+        task.setDueDate(LocalDate.of(2025, 9, 14).plusDays(i % 365));
+        task.setState(com.todolist.todolist.dto.State.DOING);
+        task.setVersion(3L);
+        return task;
+    }
+}
@@ -0,0 +1,84 @@
+package com.todolist.todolist.benchmark;
+
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write and read throughput of the JPA repository on in-memory H2 against the append-only log,
+ * once with the default interval fsync and once forcing every write to disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StorageEngineBenchmark {
+    private static final int PRELOADED = 100_000;
+
+    @Param({"jpa", "log", "log-fsync-always"})
+    private String engine;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws IOException {
+        directory = Files.createTempDirectory("task-log-benchmark");
+        context = BenchmarkApplication.start("storage-benchmark",
+                "todolist.storage.engine=" + (engine.equals("jpa") ? "jpa" : "log"),
+                "todolist.storage.log.directory=" + directory,
+                "todolist.storage.log.fsync=" + (engine.equals("log-fsync-always") ? "always" : "interval"));
+        taskRepository = context.getBean(TaskRepository.class);
+        List<Task> tasks = new ArrayList<>(PRELOADED);
+        for (int i = 0; i < PRELOADED; i++) {
+            tasks.add(newTask());
+        }
+        ids = taskRepository.saveAll(tasks).stream().mapToLong(Task::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Task write() {
+        return taskRepository.save(newTask());
+    }
+
+    @Benchmark
+    public Task read() {
+        return taskRepository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]).orElseThrow();
+    }
+
+    private static Task newTask() {
+        Task task = new Task();
+        task.setTitle("Benchmark task");
+        task.setDescription("Created by StorageEngineBenchmark");
+        task.setDueDate(LocalDate.of(2025, 9, 14));
+        task.setState(com.todolist.todolist.dto.State.READY);
+        return task;
+    }
+}
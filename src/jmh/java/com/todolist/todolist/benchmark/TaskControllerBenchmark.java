@@ -0,0 +1,95 @@
+package com.todolist.todolist.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full request path through Tomcat, Spring MVC, TaskController, TaskService and H2, driven over
+ * loopback HTTP.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskControllerBenchmark {
+    private static final int TASKS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI baseUri;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        context = BenchmarkApplication.startWebServer("controller-benchmark");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUri = URI.create("http://localhost:" + port + "/tasks");
+        httpClient = HttpClient.newHttpClient();
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < TASKS; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"title\":\"Task ").append(i).append("\",\"dueDate\":\"2025-09-14\"}");
+        }
+        send(post("/tasks/create/bulk", body.append(']').toString()));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getTask() throws Exception {
+        long id = 1 + ThreadLocalRandom.current().nextInt(TASKS);
+        return send(HttpRequest.newBuilder(baseUri.resolve("/tasks/" + id)).GET().build());
+    }
+
+    @Benchmark
+    public int getTaskPage() throws Exception {
+        return send(HttpRequest.newBuilder(baseUri.resolve("/tasks?limit=100")).GET().build());
+    }
+
+    @Benchmark
+    public int createTask() throws Exception {
+        return send(post("/tasks/create", "{\"title\":\"Created\",\"dueDate\":\"2025-09-14\"}"));
+    }
+
+    @Benchmark
+    public int updateTask() throws Exception {
+        long id = 1 + ThreadLocalRandom.current().nextInt(TASKS);
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/tasks/update"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"id\":" + id + ",\"description\":\"Updated\"}"))
+                .build();
+        return send(request);
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,76 @@
+package com.todolist.todolist.benchmark;
+
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskService hot paths against H2, without the web layer in front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskServiceBenchmark {
+    private static final int TASKS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start("service-benchmark");
+        taskService = context.getBean(TaskService.class);
+        for (int i = 0; i < TASKS; i++) {
+            taskService.createTask(newTask(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return taskService.createTask(newTask(0));
+    }
+
+    @Benchmark
+    public Task getTask() {
+        return taskService.getTask(randomId());
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        Task update = new Task();
+        update.setId(randomId());
+        update.setDescription("Updated at " + System.nanoTime());
+        return taskService.updateTask(update);
+    }
+
+    private static long randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(TASKS);
+    }
+
+    private static Task newTask(int i) {
+        Task task = new Task();
+        task.setTitle("Benchmark task " + i);
+        task.setDescription("Created by TaskServiceBenchmark");
+        task.setDueDate(LocalDate.of(2025, 9, 14));
+        task.setState(com.todolist.todolist.dto.State.READY);
+        return task;
+    }
+}
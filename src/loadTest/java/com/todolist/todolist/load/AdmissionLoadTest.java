@@ -0,0 +1,158 @@
+package com.todolist.todolist.load;
+
+import com.todolist.todolist.TodolistApplication;
+import com.todolist.todolist.service.TaskCursor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Overloads the task endpoints through the real filter chain and connection pool, once with admission
+ * control off and once with it on. The pool is cut down to a couple of connections and far more
+ * clients than it can serve read pages of tasks, so without admission control every request queues
+ * for a connection. With it on, the excess is turned away with 503 and the requests that are served
+ * should stay close to the latency target.
+ * <p>
+ * The run fails unless admission control both rejected requests and brought the p99 of the served
+ * ones below what it was without it.
+ */
+public class AdmissionLoadTest {
+    private static final int SEEDED_TASKS = 1000;
+    private static final int POOL_SIZE = 2;
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("clients", 200);
+        Duration duration = Duration.ofSeconds(Long.getLong("durationSeconds", 20));
+        Duration warmup = Duration.ofSeconds(Long.getLong("warmupSeconds", 5));
+
+        List<Result> results = new ArrayList<>();
+        results.add(run(false, clients, warmup, duration));
+        results.add(run(true, clients, warmup, duration));
+
+        System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "admission", "served", "rejected", "errors", "p50 ms", "p99 ms");
+        for (Result result : results) {
+            System.out.printf("%-10s %10d %10d %10d %10.2f %10.2f%n", result.admission() ? "on" : "off", result.served(),
+                    result.rejected(), result.errors(), result.percentileMillis(50), result.percentileMillis(99));
+        }
+        Result without = results.get(0);
+        Result with = results.get(1);
+        if (with.rejected() == 0 || with.percentileMillis(99) >= without.percentileMillis(99)) {
+            System.out.println("Admission control did not bound latency under overload");
+            System.exit(1);
+        }
+        System.out.println("Admission control kept p99 of served requests bounded");
+    }
+
+    private static Result run(boolean admission, int clients, Duration warmup, Duration duration) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodolistApplication.class).run(
+                "--server.port=0", "--spring.datasource.url=jdbc:h2:mem:admission-load-" + admission, "--logging.level.root=WARN",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE, "--todolist.admission.enabled=" + admission)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port + "/tasks");
+            HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            seed(httpClient, baseUri);
+            // The warmup settles JIT, pools and the limit and is thrown away
+            drive(admission, httpClient, baseUri, clients, warmup);
+            return drive(admission, httpClient, baseUri, clients, duration);
+        }
+    }
+
+    private static void seed(HttpClient httpClient, URI baseUri) throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < SEEDED_TASKS; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"title\":\"Seed ").append(i).append("\",\"dueDate\":\"2025-09-14\"}");
+        }
+        body.append(']');
+        HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(baseUri.resolve("/tasks/create/bulk"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+        }
+    }
+
+    private static Result drive(boolean admission, HttpClient httpClient, URI baseUri, int clients, Duration duration)
+            throws InterruptedException {
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                int clientIndex = client;
+                executor.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        URI page = baseUri.resolve("/tasks?limit=100&cursor=" + TaskCursor.encode(random.nextInt(SEEDED_TASKS - 100)));
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(page).GET().build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 503) {
+                                rejected.increment();
+                                // Honour a short back off like a well behaved client instead of spinning
+                                Thread.sleep(1);
+                                continue;
+                            }
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    latencies[clientIndex] = samples;
+                    counts[clientIndex] = count;
+                    return null;
+                });
+            }
+        }
+        long total = Arrays.stream(counts).asLongStream().sum();
+        long[] all = new long[(int) total];
+        int offset = 0;
+        for (int client = 0; client < clients; client++) {
+            System.arraycopy(latencies[client], 0, all, offset, counts[client]);
+            offset += counts[client];
+        }
+        Arrays.sort(all);
+        return new Result(admission, all, rejected.sum(), errors.sum());
+    }
+
+    record Result(boolean admission, long[] sortedLatencies, long rejected, long errors) {
+        long served() {
+            return sortedLatencies.length;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.todolist.todolist.load;
+
+import com.todolist.todolist.TodolistApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-model load test: a fixed number of clients each send a request as soon as the previous
+ * one returns. The application is started twice, once on Tomcat's platform thread pool and once
+ * with the "virtual" profile, and the results are printed side by side.
+ */
+public class LoadTest {
+    private static final int SEEDED_TASKS = 1000;
+    private static final int READ_PERCENT = 80;
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("clients", 2000);
+        Duration duration = Duration.ofSeconds(Long.getLong("durationSeconds", 30));
+
+        List<Result> results = new ArrayList<>();
+        results.add(run("platform", clients, duration));
+        results.add(run("virtual", clients, duration));
+
+        System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "mode", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        for (Result result : results) {
+            System.out.printf("%-10s %10d %10d %10.0f %10.2f %10.2f%n", result.mode(), result.requests(), result.errors(),
+                    result.throughput(), result.percentileMillis(50), result.percentileMillis(99));
+        }
+    }
+
+    private static Result run(String mode, int clients, Duration duration) throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(TodolistApplication.class);
+        if (mode.equals("virtual")) {
+            application.profiles("virtual");
+        }
+        // Admission control is off so both modes serve every request instead of racing to reject them
+        try (ConfigurableApplicationContext context = application.run(
+                "--server.port=0", "--spring.datasource.url=jdbc:h2:mem:load-" + mode, "--logging.level.root=WARN",
+                "--todolist.admission.enabled=false")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port + "/tasks");
+            HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            seed(httpClient, baseUri);
+            return drive(mode, httpClient, baseUri, clients, duration);
+        }
+    }
+
+    private static void seed(HttpClient httpClient, URI baseUri) throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < SEEDED_TASKS; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"title\":\"Seed ").append(i).append("\",\"dueDate\":\"2025-09-14\"}");
+        }
+        body.append(']');
+        HttpResponse<Void> response = httpClient.send(jsonRequest(baseUri.resolve("/tasks/create/bulk"), body.toString()),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+        }
+    }
+
+    private static Result drive(String mode, HttpClient httpClient, URI baseUri, int clients, Duration duration)
+            throws InterruptedException {
+        LongAdder errors = new LongAdder();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        long deadline = System.nanoTime() + duration.toNanos();
+        // The clients are virtual threads too, so the load generator itself never runs out of threads
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                int clientIndex = client;
+                executor.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = random.nextInt(100) < READ_PERCENT
+                                ? HttpRequest.newBuilder(baseUri.resolve("/tasks/" + (1 + random.nextInt(SEEDED_TASKS)))).GET().build()
+                                : jsonRequest(baseUri.resolve("/tasks/create"), "{\"title\":\"Load\",\"dueDate\":\"2025-09-14\"}");
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    latencies[clientIndex] = samples;
+                    counts[clientIndex] = count;
+                });
+            }
+        }
+        long total = Arrays.stream(counts).asLongStream().sum();
+        long[] all = new long[(int) total];
+        int offset = 0;
+        for (int client = 0; client < clients; client++) {
+            System.arraycopy(latencies[client], 0, all, offset, counts[client]);
+            offset += counts[client];
+        }
+        Arrays.sort(all);
+        return new Result(mode, all, errors.sum(), duration);
+    }
+
+    private static HttpRequest jsonRequest(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    record Result(String mode, long[] sortedLatencies, long errors, Duration duration) {
+        long requests() {
+            return sortedLatencies.length;
+        }
+
+        double throughput() {
+            return requests() / (duration.toMillis() / 1000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
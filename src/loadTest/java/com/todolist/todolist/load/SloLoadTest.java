@@ -0,0 +1,258 @@
+package com.todolist.todolist.load;
+
+import com.todolist.todolist.TodolistApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load test with a latency gate: requests arrive at a fixed {@code rate} per second
+ * whether or not earlier ones have finished, the way independent users do, so a slow server shows
+ * up as queueing latency instead of as a quietly lower request rate.
+ * <p>
+ * The workload mixes creates, single reads, page reads and updates in the ratios given by
+ * {@code mix}. Which operation is sent when, and against which task, comes from a random generator
+ * seeded with {@code seed}, so two runs send the same sequence of requests. Latency is measured
+ * from the moment a request was due to be sent, which keeps a stalled server from hiding its own
+ * stall (coordinated omission), and is recorded in HDR histograms per operation.
+ * <p>
+ * The run fails when p99 or p99.9 exceeds its SLO, when too many requests fail, or when the server
+ * could not keep up with the arrival rate.
+ */
+public class SloLoadTest {
+    private static final int SEEDED_TASKS = 1000;
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    // Requests still waiting for a response beyond this are counted as errors instead of piling up
+    private static final int MAX_IN_FLIGHT = 10_000;
+    // Below this share of the target rate the generator, not the server, was the bottleneck
+    private static final double MIN_ACHIEVED_RATE = 0.95;
+
+    enum Operation {
+        CREATE, GET, LIST, UPDATE
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        System.out.println("Running " + settings);
+        SpringApplicationBuilder application = new SpringApplicationBuilder(TodolistApplication.class);
+        // Admission control is off unless asked for, as every 503 it sends counts against the error SLO
+        try (ConfigurableApplicationContext context = application.run(
+                "--server.port=0", "--spring.datasource.url=jdbc:h2:mem:slo-load", "--logging.level.root=WARN",
+                "--todolist.admission.enabled=" + settings.admission())) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port + "/tasks");
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            seed(httpClient, baseUri);
+            // The warmup runs the same workload and is thrown away, so JIT and pools are settled
+            drive(settings, settings.warmup(), httpClient, baseUri);
+            Report report = drive(settings, settings.duration(), httpClient, baseUri);
+            report.print();
+            List<String> breaches = report.breaches(settings);
+            if (!breaches.isEmpty()) {
+                breaches.forEach(breach -> System.out.println("SLO breached: " + breach));
+                System.exit(1);
+            }
+            System.out.println("All SLOs met");
+        }
+    }
+
+    private static void seed(HttpClient httpClient, URI baseUri) throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < SEEDED_TASKS; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"title\":\"Seed ").append(i).append("\",\"dueDate\":\"2025-09-14\"}");
+        }
+        body.append(']');
+        HttpResponse<Void> response = httpClient.send(jsonRequest(baseUri.resolve("/tasks/create/bulk"), "POST", body.toString()),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+        }
+    }
+
+    private static Report drive(Settings settings, Duration duration, HttpClient httpClient, URI baseUri) {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(operation, new LongAdder());
+        }
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long requests = duration.toSeconds() * settings.rate();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                Operation operation = settings.pick(random);
+                HttpRequest request = request(operation, baseUri, random);
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    errors.get(operation).increment();
+                    continue;
+                }
+                executor.submit(() -> {
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.get(operation).increment();
+                        }
+                    } catch (Exception e) {
+                        errors.get(operation).increment();
+                    } finally {
+                        recorders.get(operation).recordValue(Math.min(System.nanoTime() - intendedStart, HIGHEST_TRACKABLE_NANOS));
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, recorders.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).sum());
+        }
+        return new Report(histograms, errorCounts, requests, elapsedNanos);
+    }
+
+    private static HttpRequest request(Operation operation, URI baseUri, SplittableRandom random) {
+        long id = 1 + random.nextInt(SEEDED_TASKS);
+        return switch (operation) {
+            case CREATE -> jsonRequest(baseUri.resolve("/tasks/create"), "POST", "{\"title\":\"Load\",\"dueDate\":\"2025-09-14\"}");
+            case GET -> HttpRequest.newBuilder(baseUri.resolve("/tasks/" + id)).GET().build();
+            case LIST -> HttpRequest.newBuilder(baseUri.resolve("/tasks?limit=20")).GET().build();
+            case UPDATE -> jsonRequest(baseUri.resolve("/tasks/update"), "PUT", "{\"id\":" + id + ",\"title\":\"Updated\"}");
+        };
+    }
+
+    private static HttpRequest jsonRequest(URI uri, String method, String body) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Everything that shapes a run, read from system properties so the Gradle task can pass them on.
+     */
+    record Settings(int rate, Duration duration, Duration warmup, Map<Operation, Integer> mix, long seed,
+                    double sloP99Millis, double sloP999Millis, double sloMaxErrorRate, boolean admission) {
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("rate", 500),
+                    Duration.ofSeconds(Long.getLong("durationSeconds", 60)),
+                    Duration.ofSeconds(Long.getLong("warmupSeconds", 10)),
+                    parseMix(System.getProperty("mix", "create=10,get=60,list=20,update=10")),
+                    Long.getLong("seed", 42),
+                    Double.parseDouble(System.getProperty("sloP99Millis", "50")),
+                    Double.parseDouble(System.getProperty("sloP999Millis", "200")),
+                    Double.parseDouble(System.getProperty("sloMaxErrorRate", "0.001")),
+                    Boolean.getBoolean("admission"));
+        }
+
+        static Map<Operation, Integer> parseMix(String mix) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String part : mix.split(",")) {
+                String[] entry = part.trim().split("=");
+                if (entry.length != 2) {
+                    throw new IllegalArgumentException("Expected operation=weight in mix but got " + part);
+                }
+                weights.put(Operation.valueOf(entry[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(entry[1].trim()));
+            }
+            if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+                throw new IllegalArgumentException("Mix must have a positive total weight: " + mix);
+            }
+            return weights;
+        }
+
+        Operation pick(SplittableRandom random) {
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            int roll = random.nextInt(total);
+            for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+                roll -= weight.getValue();
+                if (roll < 0) {
+                    return weight.getKey();
+                }
+            }
+            throw new IllegalStateException("Unreachable");
+        }
+    }
+
+    record Report(Map<Operation, Histogram> histograms, Map<Operation, Long> errors, long requests, long elapsedNanos) {
+        Histogram total() {
+            Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+            histograms.values().forEach(total::add);
+            return total;
+        }
+
+        long totalErrors() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        double throughput() {
+            return total().getTotalCount() / (elapsedNanos / 1e9);
+        }
+
+        void print() {
+            System.out.printf("%-8s %10s %8s %10s %10s %10s %10s%n", "op", "requests", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            histograms.forEach((operation, histogram) -> print(operation.name().toLowerCase(Locale.ROOT), histogram, errors.get(operation)));
+            print("all", total(), totalErrors());
+            System.out.printf("throughput %.0f req/s over %.1f s%n", throughput(), elapsedNanos / 1e9);
+        }
+
+        private static void print(String name, Histogram histogram, long errors) {
+            System.out.printf("%-8s %10d %8d %10.2f %10.2f %10.2f %10.2f%n", name, histogram.getTotalCount(), errors,
+                    millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1e6);
+        }
+
+        List<String> breaches(Settings settings) {
+            List<String> breaches = new ArrayList<>();
+            Histogram total = total();
+            if (millis(total, 99) > settings.sloP99Millis()) {
+                breaches.add("p99 %.2f ms > %.2f ms".formatted(millis(total, 99), settings.sloP99Millis()));
+            }
+            if (millis(total, 99.9) > settings.sloP999Millis()) {
+                breaches.add("p99.9 %.2f ms > %.2f ms".formatted(millis(total, 99.9), settings.sloP999Millis()));
+            }
+            double errorRate = requests == 0 ? 0 : (double) totalErrors() / requests;
+            if (errorRate > settings.sloMaxErrorRate()) {
+                breaches.add("error rate %.4f > %.4f".formatted(errorRate, settings.sloMaxErrorRate()));
+            }
+            if (throughput() < settings.rate() * MIN_ACHIEVED_RATE) {
+                breaches.add("throughput %.0f req/s below the target of %d req/s".formatted(throughput(), settings.rate()));
+            }
+            return breaches;
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.todolist.todolist.load;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup benchmark for the fast-start mode. Each run starts the extracted application in a fresh
+ * JVM, polls {@code GET /tasks} until it succeeds and records the time from launch to that first
+ * success and the resident set size of the process at that point. Both modes run from the same
+ * extracted layout, so the only difference is the AOT processed context and the AOT cache.
+ */
+public class StartupBenchmark {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_INTERVAL_MILLIS = 5;
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Path.of(System.getProperty("fastStartDir", "build/fast-start"));
+        String jar = System.getProperty("jar", "todolist-0.0.1-SNAPSHOT.jar");
+        int runs = Integer.getInteger("runs", 5);
+        String java = ProcessHandle.current().info().command().orElse("java");
+
+        List<Result> results = new ArrayList<>();
+        results.add(measure("standard", directory, runs, List.of(java, "-jar", jar)));
+        results.add(measure("fast-start", directory, runs,
+                List.of(java, "-XX:AOTCache=app.aot", "-Dspring.aot.enabled=true", "-jar", jar)));
+
+        System.out.printf("%-12s %6s %16s %16s %12s%n", "mode", "runs", "median ms", "best ms", "rss MB");
+        for (Result result : results) {
+            System.out.printf("%-12s %6d %16d %16d %12.1f%n", result.mode(), result.startupMillis().size(),
+                    median(result.startupMillis()), result.startupMillis().stream().mapToLong(Long::longValue).min().orElse(0),
+                    median(result.rssKilobytes()) / 1024.0);
+        }
+    }
+
+    private static Result measure(String mode, Path directory, int runs, List<String> command) throws Exception {
+        List<Long> startupMillis = new ArrayList<>();
+        List<Long> rssKilobytes = new ArrayList<>();
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        for (int run = 0; run < runs; run++) {
+            int port = freePort();
+            List<String> arguments = new ArrayList<>(command);
+            arguments.add("--server.port=" + port);
+            arguments.add("--logging.level.root=WARN");
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(arguments)
+                    .directory(directory.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                awaitFirstList(httpClient, URI.create("http://localhost:" + port + "/tasks"), process);
+                startupMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                rssKilobytes.add(rssKilobytes(process.pid()));
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+        return new Result(mode, startupMillis, rssKilobytes);
+    }
+
+    private static void awaitFirstList(HttpClient httpClient, URI uri, Process process) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + process.exitValue());
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        throw new IllegalStateException("Application did not answer GET /tasks within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Resident set size from /proc, so this only reports memory on Linux and 0 elsewhere.
+     */
+    private static long rssKilobytes(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(0);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = values.stream().sorted().toList();
+        return sorted.isEmpty() ? 0 : sorted.get(sorted.size() / 2);
+    }
+
+    record Result(String mode, List<Long> startupMillis, List<Long> rssKilobytes) {
+    }
+}
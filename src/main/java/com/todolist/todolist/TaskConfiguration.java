@@ -1,9 +1,13 @@
 package com.todolist.todolist;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Clock;
 
 @Configuration
 public class TaskConfiguration {
@@ -11,4 +15,20 @@ public class TaskConfiguration {
     public JavaTimeModule javaTimeModule() {
         return new JavaTimeModule();
     }
+
+    /**
+     * Serves {@code application/cbor} to callers that ask for it. The mapper comes from the same
+     * builder as the JSON one, so it has the JavaTimeModule and writes dates as ISO strings rather
+     * than timestamps. It replaces the default CBOR converter in place, so JSON stays first and
+     * remains what everyone else gets.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
 }
@@ -2,12 +2,9 @@ package com.todolist.todolist;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.ComponentScan;
-import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
+// @SpringBootApplication already scans this package for components and JPA repositories
 @SpringBootApplication
-@EnableJpaRepositories
-@ComponentScan
 public class TodolistApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(TodolistApplication.class, args);
@@ -0,0 +1,77 @@
+package com.todolist.todolist.admission;
+
+/**
+ * Concurrency limit that adapts to measured latency with additive increase, multiplicative
+ * decrease: while requests finish within the latency target and the limit is actually being used,
+ * it grows by about one per round trip; a request that is slower than the target, or fails,
+ * shrinks it by {@code backoffRatio}. Like TCP, it backs off at most once per round trip: requests
+ * that started before the last backoff were admitted under the old limit and say nothing about the
+ * new one, so a burst of slow requests costs one step instead of collapsing the limit. Requests
+ * beyond the limit are turned away instead of queued, so the work that is admitted keeps the
+ * latency of a system that is not overloaded.
+ */
+public class AdaptiveLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    // Both guarded by this
+    private double limit;
+    private int inFlight;
+    private boolean backedOff;
+    private long lastBackoffNanos;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Admits a request if fewer than the current limit are in flight. Every admitted request must be
+     * followed by exactly one {@link #release}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= getLimit()) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Ends an admitted request that started at {@code startNanos} and ended at {@code endNanos}, both
+     * from {@link System#nanoTime()}, and feeds how long it took, or that it failed, into the limit.
+     */
+    public synchronized void release(long startNanos, long endNanos, boolean failed) {
+        long latencyNanos = endNanos - startNanos;
+        if (failed || latencyNanos > latencyTargetNanos) {
+            if (!backedOff || startNanos - lastBackoffNanos >= 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                backedOff = true;
+                lastBackoffNanos = endNanos;
+            }
+        } else if (inFlight * 2 >= limit) {
+            // Only grow while the limit is what holds requests back, not after a quiet spell. Adding
+            // 1 / limit per request grows the limit by about one per round trip
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,138 @@
+package com.todolist.todolist.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the task endpoints. Reads and writes each get an {@link AdaptiveLimiter}, so
+ * a burst of list requests cannot take every database connection from writes or the other way
+ * round. A request over its limit is answered with 503 and {@code Retry-After} straight away, before
+ * it ties up a connection, instead of waiting behind everyone else for the pool.
+ * <p>
+ * Endpoints that do a lot of work per request, such as bulk writes, transitions and search, share a
+ * third limit with its own, longer latency target, so their routine cost never reads as overload
+ * of the cheap endpoints. Long lived streams are exempt, as their duration says nothing about how
+ * loaded the database is.
+ */
+@Component
+// After the observation filter, so rejected requests still show up in http.server.requests
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final String PATH_PREFIX = "/tasks";
+
+    private final boolean enabled;
+    private final Set<String> exemptUris;
+    private final Set<String> bulkUris;
+    private final Lane reads;
+    private final Lane writes;
+    private final Lane bulk;
+
+    public AdmissionControlFilter(MeterRegistry meterRegistry,
+                                  @Value("${todolist.admission.enabled:false}") boolean enabled,
+                                  @Value("${todolist.admission.exempt:/tasks/changes/stream,/tasks/export}") Set<String> exemptUris,
+                                  @Value("${todolist.admission.bulk:/tasks/create/bulk,/tasks/update/bulk,/tasks/transition,/tasks/search,/tasks/stats/verify}") Set<String> bulkUris,
+                                  @Value("${todolist.admission.initial-limit:20}") int initialLimit,
+                                  @Value("${todolist.admission.min-limit:4}") int minLimit,
+                                  @Value("${todolist.admission.max-limit:200}") int maxLimit,
+                                  @Value("${todolist.admission.latency-target-ms:50}") long latencyTargetMillis,
+                                  @Value("${todolist.admission.bulk-latency-target-ms:1000}") long bulkLatencyTargetMillis,
+                                  @Value("${todolist.admission.backoff-ratio:0.9}") double backoffRatio) {
+        this.enabled = enabled;
+        this.exemptUris = exemptUris;
+        this.bulkUris = bulkUris;
+        long latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+        long bulkLatencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(bulkLatencyTargetMillis);
+        this.reads = new Lane(meterRegistry, "read",
+                new AdaptiveLimiter(initialLimit, minLimit, maxLimit, latencyTargetNanos, backoffRatio));
+        this.writes = new Lane(meterRegistry, "write",
+                new AdaptiveLimiter(initialLimit, minLimit, maxLimit, latencyTargetNanos, backoffRatio));
+        this.bulk = new Lane(meterRegistry, "bulk",
+                new AdaptiveLimiter(initialLimit, minLimit, maxLimit, bulkLatencyTargetNanos, backoffRatio));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !enabled || !uri.startsWith(PATH_PREFIX) || exemptUris.contains(uri);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Lane lane = bulkUris.contains(request.getRequestURI()) ? bulk : isRead(request) ? reads : writes;
+        if (!lane.limiter().tryAcquire()) {
+            lane.rejected().increment();
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            lane.limiter().release(start, System.nanoTime(), failed);
+        }
+    }
+
+    AdaptiveLimiter reads() {
+        return reads.limiter();
+    }
+
+    AdaptiveLimiter writes() {
+        return writes.limiter();
+    }
+
+    AdaptiveLimiter bulk() {
+        return bulk.limiter();
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS");
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("The server is busy, please try again shortly");
+    }
+
+    /**
+     * One limit with its meters, tagged with the type of request it admits.
+     */
+    private record Lane(AdaptiveLimiter limiter, Counter rejected) {
+        Lane(MeterRegistry meterRegistry, String type, AdaptiveLimiter limiter) {
+            this(limiter, Counter.builder("task.admission.rejected")
+                    .description("Requests turned away with 503 because the limit was reached")
+                    .tag("type", type)
+                    .register(meterRegistry));
+            Gauge.builder("task.admission.limit", limiter, AdaptiveLimiter::getLimit)
+                    .description("Requests currently allowed in flight")
+                    .tag("type", type)
+                    .register(meterRegistry);
+            Gauge.builder("task.admission.in.flight", limiter, AdaptiveLimiter::getInFlight)
+                    .description("Admitted requests that have not finished yet")
+                    .tag("type", type)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -1,46 +1,277 @@
 package com.todolist.todolist.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todolist.todolist.datasource.ReadWriteRouting;
 import com.todolist.todolist.dto.State;
 import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskCacheStats;
+import com.todolist.todolist.dto.TaskChange;
+import com.todolist.todolist.dto.TaskChanges;
+import com.todolist.todolist.dto.TaskField;
+import com.todolist.todolist.dto.TaskFilter;
+import com.todolist.todolist.dto.TaskPage;
+import com.todolist.todolist.dto.TaskSearchResult;
+import com.todolist.todolist.dto.TaskStats;
+import com.todolist.todolist.dto.TaskStatsCheck;
+import com.todolist.todolist.dto.TaskTransition;
+import com.todolist.todolist.dto.TaskTransitionResult;
+import com.todolist.todolist.service.TaskChangeFeed;
 import com.todolist.todolist.service.TaskService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/tasks")
 public class TaskController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final String REVISION_HEADER = "X-Revision";
+    private static final long CHANGE_STREAM_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/create")
     public ResponseEntity<Task> createTask(@RequestBody Task task) {
         task.setState(State.READY);
+        task.setVersion(null);
         task = taskService.createTask(task);
-        return ResponseEntity.ok().body(task);
+        return ResponseEntity.ok().eTag(eTag(task)).body(task);
+    }
+
+    @PostMapping("/create/bulk")
+    public ResponseEntity<List<Task>> createTasks(@RequestBody List<Task> tasks) {
+        tasks.forEach(task -> {
+            task.setState(State.READY);
+            task.setVersion(null);
+        });
+        List<Task> createdTasks = taskService.createTasks(tasks);
+        return ResponseEntity.ok().body(createdTasks);
     }
 
     @PutMapping("/update")
-    public ResponseEntity<Task> updateTask(@RequestBody Task task) {
+    public ResponseEntity<Task> updateTask(@RequestBody Task task,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        task.setVersion(parseVersion(ifMatch));
         task = taskService.updateTask(task);
-        return ResponseEntity.ok().body(task);
+        return ResponseEntity.ok().eTag(eTag(task)).body(task);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Task> patchTask(@PathVariable("id") Long id, @RequestBody Task changes,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        changes.setVersion(parseVersion(ifMatch));
+        Task task = taskService.patchTask(id, changes);
+        return ResponseEntity.ok().eTag(eTag(task)).body(task);
+    }
+
+    @PutMapping("/update/bulk")
+    public ResponseEntity<List<Task>> updateTasks(@RequestBody List<Task> tasks) {
+        List<Task> updatedTasks = taskService.updateTasks(tasks);
+        return ResponseEntity.ok().body(updatedTasks);
+    }
+
+    @PostMapping("/transition")
+    public ResponseEntity<TaskTransitionResult> transitionTasks(@RequestBody TaskTransition transition) {
+        return ResponseEntity.ok().body(taskService.transitionTasks(transition));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTask(@PathVariable("id") Long id) {
+    public ResponseEntity<Task> getTask(@PathVariable("id") Long id, WebRequest request) {
         Task task = taskService.getTask(id);
-        return ResponseEntity.ok().body(task);
+        String eTag = eTag(task);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(task);
+    }
+
+    /**
+     * Sparse fieldset, e.g. {@code fields=id,title,state}: only those properties are read from the
+     * database and written to the response.
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getTaskFields(@PathVariable("id") Long id,
+                                                             @RequestParam("fields") String fields,
+                                                             WebRequest request) {
+        Set<TaskField> selected = TaskField.parse(fields);
+        Task task = taskService.getTask(id, selected);
+        String eTag = eTag(task);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(TaskField.select(task, selected));
     }
 
     @GetMapping
-    public ResponseEntity<List<Task>> getTasks() {
-        List<Task> tasks = taskService.getTasks();
-        return ResponseEntity.ok().body(tasks);
+    public ResponseEntity<List<Task>> getTasks(TaskFilter filter,
+                                               @RequestParam(value = "cursor", required = false) String cursor,
+                                               @RequestParam(value = "limit", defaultValue = "100") int limit,
+                                               @RequestParam(value = "consistent", defaultValue = "false") boolean consistent,
+                                               WebRequest request) {
+        if (consistent) {
+            ReadWriteRouting.readFromPrimary();
+        }
+        // The page fingerprint is checked first so an unchanged page is never loaded or serialised
+        String eTag = taskService.getTasksVersion(filter, cursor, limit);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        // Read before the page, so changes racing the read are replayed rather than missed
+        long revision = taskService.getRevision();
+        TaskPage page = taskService.getTasks(filter, cursor, limit);
+        ResponseEntity.BodyBuilder response = withRevision(ResponseEntity.ok().eTag(eTag), revision);
+        if (page.next() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.next());
+        }
+        return response.body(page.tasks());
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getTaskFields(TaskFilter filter,
+                                                                   @RequestParam("fields") String fields,
+                                                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                                                   @RequestParam(value = "limit", defaultValue = "100") int limit,
+                                                                   @RequestParam(value = "consistent", defaultValue = "false") boolean consistent,
+                                                                   WebRequest request) {
+        Set<TaskField> selected = TaskField.parse(fields);
+        if (consistent) {
+            ReadWriteRouting.readFromPrimary();
+        }
+        // Same page and rows as without fields, so the fingerprint is the same as well
+        String eTag = taskService.getTasksVersion(filter, cursor, limit);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        long revision = taskService.getRevision();
+        TaskPage page = taskService.getTasks(filter, cursor, limit, selected);
+        ResponseEntity.BodyBuilder response = withRevision(ResponseEntity.ok().eTag(eTag), revision);
+        if (page.next() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.next());
+        }
+        return response.body(page.tasks().stream().map(task -> TaskField.select(task, selected)).toList());
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<List<Task>> getArchivedTasks(@RequestParam(value = "cursor", required = false) String cursor,
+                                                       @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        TaskPage page = taskService.getArchivedTasks(cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.next());
+        }
+        return response.body(page.tasks());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchTasks(@RequestParam("q") String query,
+                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        TaskSearchResult result = taskService.searchTasks(query, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().header(TOTAL_COUNT_HEADER, String.valueOf(result.total()));
+        if (result.next() != null) {
+            response.header(NEXT_CURSOR_HEADER, result.next());
+        }
+        return response.body(result.tasks());
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChanges> getChanges(@RequestParam("since") long since,
+                                                  @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        TaskChanges changes = taskService.getChanges(since, limit);
+        return ResponseEntity.status(changes.resyncRequired() ? HttpStatus.GONE : HttpStatus.OK).body(changes);
+    }
+
+    /**
+     * Pushes changes as server-sent events with the revision as event id, so a reconnecting
+     * client resumes through the standard Last-Event-ID header.
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(value = "since", required = false) Long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(CHANGE_STREAM_TIMEOUT_MILLIS);
+        TaskChangeFeed.Subscription subscription = taskService.subscribeToChanges(lastEventId != null ? lastEventId : since,
+                new TaskChangeFeed.Listener() {
+                    @Override
+                    public void onChange(TaskChange change) throws IOException {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(change.revision()))
+                                .name(change.type().name().toLowerCase(Locale.ROOT))
+                                .data(change, MediaType.APPLICATION_JSON));
+                    }
+
+                    @Override
+                    public void onResyncRequired(long revision) throws IOException {
+                        emitter.send(SseEmitter.event().name("resync").data(new TaskChanges(List.of(), revision, true), MediaType.APPLICATION_JSON));
+                        emitter.complete();
+                    }
+
+                    @Override
+                    public void onHeartbeat() throws IOException {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStats> getStats() {
+        return ResponseEntity.ok().body(taskService.getStats());
+    }
+
+    @GetMapping("/stats/verify")
+    public ResponseEntity<TaskStatsCheck> verifyStats() {
+        return ResponseEntity.ok().body(taskService.verifyStats());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<TaskCacheStats> getCacheStats() {
+        return ResponseEntity.ok().body(taskService.getCacheStats());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportTasks(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        // Rows are written as they are read; the servlet buffer decides when a chunk goes out
+        ObjectWriter writer = objectMapper.writerFor(Task.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            taskService.exportTasks(task -> {
+                try {
+                    writer.writeValue(generator, task);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -49,4 +280,41 @@ public class TaskController {
         return ResponseEntity.badRequest()
                 .body("Please inspect the request as it was invalid");
     }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleOverload() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("The server is busy, please try again shortly");
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body("The task was changed by someone else, please fetch it again");
+    }
+
+    /**
+     * A page read from a lagging replica can miss changes numbered at or below the revision, and
+     * {@code /changes} would never send them, so those pages go out without one. Clients that follow
+     * the change feed ask with {@code consistent=true}, which reads the page from the primary.
+     */
+    private static ResponseEntity.BodyBuilder withRevision(ResponseEntity.BodyBuilder response, long revision) {
+        return ReadWriteRouting.readFromReplica() ? response : response.header(REVISION_HEADER, String.valueOf(revision));
+    }
+
+    private static String eTag(Task task) {
+        return String.valueOf(task.getVersion());
+    }
+
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        return Long.valueOf(tag.replace("\"", ""));
+    }
 }
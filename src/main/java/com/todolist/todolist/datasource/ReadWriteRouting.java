@@ -0,0 +1,85 @@
+package com.todolist.todolist.datasource;
+
+import com.todolist.todolist.service.TaskChangedEvent;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Decides per query whether it may be served by the read replica. Methods annotated with
+ * {@link ReplicaRead} open a replica scope on their thread; any write in the same request closes it
+ * for the rest of that request, so a client always reads its own writes. A request can also ask for
+ * the primary up front with {@link #readFromPrimary()}, and can find out afterwards whether the
+ * replica served any of its queries.
+ */
+@Aspect
+@Component
+public class ReadWriteRouting {
+    private static final ThreadLocal<Boolean> REPLICA_SCOPE = ThreadLocal.withInitial(() -> false);
+    private static final String PRIMARY_ONLY_ATTRIBUTE = ReadWriteRouting.class.getName() + ".primaryOnly";
+    private static final String REPLICA_USED_ATTRIBUTE = ReadWriteRouting.class.getName() + ".replicaUsed";
+
+    @Around("@annotation(com.todolist.todolist.datasource.ReplicaRead)")
+    public Object inReplicaScope(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = REPLICA_SCOPE.get();
+        REPLICA_SCOPE.set(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            REPLICA_SCOPE.set(previous);
+        }
+    }
+
+    // Every task write publishes this on the request thread, whether it went through group commit or not
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        readFromPrimary();
+    }
+
+    /**
+     * Sends every later query of the current request to the primary.
+     */
+    public static void readFromPrimary() {
+        setRequestAttribute(PRIMARY_ONLY_ATTRIBUTE);
+    }
+
+    /**
+     * Whether the replica served any query of the current request so far, in which case what was
+     * read may be behind the primary.
+     */
+    public static boolean readFromReplica() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(REPLICA_USED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    static void recordReplicaRead() {
+        setRequestAttribute(REPLICA_USED_ATTRIBUTE);
+    }
+
+    /**
+     * Whether the query about to run on this thread may go to the replica.
+     */
+    static boolean replicaAllowed() {
+        if (!REPLICA_SCOPE.get()) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request == null || request.getAttribute(PRIMARY_ONLY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) == null;
+    }
+
+    private static void setRequestAttribute(String name) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(name, true, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
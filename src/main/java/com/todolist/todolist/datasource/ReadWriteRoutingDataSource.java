@@ -0,0 +1,110 @@
+package com.todolist.todolist.datasource;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out replica connections to queries {@link ReadWriteRouting} allows on the replica and primary
+ * connections to everything else. It has to sit behind a lazy connection proxy, so the route is
+ * picked when the first statement runs and the transaction's read-only flag is known.
+ * <p>
+ * A replica that fails to hand out a connection, or fails the periodic check, is marked unhealthy and
+ * all reads go to the primary until a check passes again.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final DataSource replica;
+    private final ScheduledExecutorService healthChecker;
+    private volatile boolean replicaHealthy = true;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long healthCheckSeconds) {
+        this.replica = replica;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-health").daemon().factory());
+        healthChecker.scheduleWithFixedDelay(this::checkReplica, healthCheckSeconds, healthCheckSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        healthChecker.shutdownNow();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaHealthy && ReadWriteRouting.replicaAllowed() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != replica) {
+            return target.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            ReadWriteRouting.recordReplicaRead();
+            return connection;
+        } catch (SQLException e) {
+            markReplicaUnhealthy(e);
+            return getResolvedDefaultDataSource().getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != replica) {
+            return target.getConnection(username, password);
+        }
+        try {
+            Connection connection = replica.getConnection(username, password);
+            ReadWriteRouting.recordReplicaRead();
+            return connection;
+        } catch (SQLException e) {
+            markReplicaUnhealthy(e);
+            return getResolvedDefaultDataSource().getConnection(username, password);
+        }
+    }
+
+    boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    void checkReplica() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                markReplicaUnhealthy(null);
+                return;
+            }
+            if (!replicaHealthy) {
+                log.info("Replica is healthy again, sending reads to it");
+                replicaHealthy = true;
+            }
+        } catch (Exception e) {
+            markReplicaUnhealthy(e);
+        }
+    }
+
+    private void markReplicaUnhealthy(Exception cause) {
+        if (replicaHealthy) {
+            log.warn("Replica is unhealthy, sending reads to the primary", cause);
+            replicaHealthy = false;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.todolist.todolist.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the single datasource with a primary and a replica pool once
+ * {@code todolist.datasource.replica.url} is set. The primary pool is configured by the usual
+ * {@code spring.datasource.*} properties, the replica by {@code todolist.datasource.replica.*}.
+ * <p>
+ * Replication itself is left to the database. A page read from a lagging replica can miss changes
+ * the change feed has already numbered, so lists served by the replica are sent without a revision;
+ * clients that follow the change feed ask for a consistent list from the primary instead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todolist.datasource.replica.url")
+public class ReplicaDataSourceConfiguration {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("todolist.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${todolist.datasource.replica.url}") String url,
+                                              @Value("${todolist.datasource.replica.username:}") String username,
+                                              @Value("${todolist.datasource.replica.password:}") String password) {
+        // Same driver and, unless overridden, the same credentials as the primary
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username.isEmpty() ? properties.determineUsername() : username)
+                .password(password.isEmpty() ? properties.determinePassword() : password)
+                .build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                       @Qualifier("replicaDataSource") DataSource replica,
+                                                       @Value("${todolist.datasource.replica.health-check-seconds:5}") long healthCheckSeconds) {
+        return new ReadWriteRoutingDataSource(primary, replica, healthCheckSeconds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
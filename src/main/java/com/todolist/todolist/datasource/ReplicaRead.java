@@ -0,0 +1,16 @@
+package com.todolist.todolist.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only method whose queries may run on the read replica, when one is configured. The
+ * queries still go to the primary inside a read-write transaction, after the current request wrote
+ * a task, or while the replica is unhealthy.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
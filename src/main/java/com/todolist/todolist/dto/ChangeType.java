@@ -0,0 +1,7 @@
+package com.todolist.todolist.dto;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+}
@@ -1,10 +1,15 @@
 package com.todolist.todolist.dto;
 
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -14,12 +19,34 @@ import java.time.LocalTime;
 @Getter
 @Setter
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_state_due_date", columnList = "state, due_date"),
+        // Serves keyset pages filtered by state alone, which walk the state in id order
+        @Index(name = "idx_task_state_id", columnList = "state, id"),
+        @Index(name = "idx_task_due_date", columnList = "due_date")
+})
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // A pooled sequence lets Hibernate hand out ids without a round trip per row and batch the inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
     private String title;
     private String description;
+    @Column(name = "due_date")
     private LocalDate dueDate;
     private State state;
+    @Version
+    private Long version;
+
+    public Task copy() {
+        Task copy = new Task();
+        copy.setId(id);
+        copy.setTitle(title);
+        copy.setDescription(description);
+        copy.setDueDate(dueDate);
+        copy.setState(state);
+        copy.setVersion(version);
+        return copy;
+    }
 }
@@ -0,0 +1,4 @@
+package com.todolist.todolist.dto;
+
+public record TaskCacheStats(long hitCount, long missCount, long evictionCount, long size) {
+}
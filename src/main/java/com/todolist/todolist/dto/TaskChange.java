@@ -0,0 +1,7 @@
+package com.todolist.todolist.dto;
+
+/**
+ * One entry of the change feed. Deletes are tombstones that carry only the id.
+ */
+public record TaskChange(long revision, ChangeType type, Long id, Task task) {
+}
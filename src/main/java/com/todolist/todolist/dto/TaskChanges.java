@@ -0,0 +1,11 @@
+package com.todolist.todolist.dto;
+
+import java.util.List;
+
+/**
+ * Changes after the revision a client asked for, oldest first, and the revision to ask from next.
+ * When {@code resyncRequired} is set the changes the client is missing are no longer kept; it has to
+ * reload the task list and continue from {@code revision}.
+ */
+public record TaskChanges(List<TaskChange> changes, long revision, boolean resyncRequired) {
+}
@@ -0,0 +1,9 @@
+package com.todolist.todolist.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Number of tasks sharing a state and a due date.
+ */
+public record TaskCount(State state, LocalDate dueDate, long count) {
+}
@@ -0,0 +1,69 @@
+package com.todolist.todolist.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Task properties a client can ask for with {@code fields=}, each with the column it is read from.
+ */
+public enum TaskField {
+    ID("id", "id", Task::getId),
+    TITLE("title", "title", Task::getTitle),
+    DESCRIPTION("description", "description", Task::getDescription),
+    DUE_DATE("dueDate", "due_date", Task::getDueDate),
+    STATE("state", "state", Task::getState),
+    VERSION("version", "version", Task::getVersion);
+
+    public static final Set<TaskField> ALL = Collections.unmodifiableSet(EnumSet.allOf(TaskField.class));
+
+    private final String property;
+    private final String column;
+    private final Function<Task, Object> getter;
+
+    TaskField(String property, String column, Function<Task, Object> getter) {
+        this.property = property;
+        this.column = column;
+        this.getter = getter;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    /**
+     * Parses a comma separated list of property names such as {@code id,title,state}.
+     */
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            throw new IllegalArgumentException("Fields must not be blank");
+        }
+        Set<TaskField> parsed = EnumSet.noneOf(TaskField.class);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown task field: " + property)));
+        }
+        return parsed;
+    }
+
+    /**
+     * The chosen properties of {@code task} in declaration order, keeping nulls so a requested
+     * field that is not set still shows up in the response.
+     */
+    public static Map<String, Object> select(Task task, Set<TaskField> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        fields.forEach(field -> selected.put(field.property, field.getter.apply(task)));
+        return selected;
+    }
+}
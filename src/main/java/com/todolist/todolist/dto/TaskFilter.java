@@ -0,0 +1,15 @@
+package com.todolist.todolist.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Optional server-side filter for task listings. Null components match every task and the due
+ * date range is inclusive on both ends.
+ */
+public record TaskFilter(State state,
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo) {
+    public static final TaskFilter NONE = new TaskFilter(null, null, null);
+}
@@ -0,0 +1,9 @@
+package com.todolist.todolist.dto;
+
+import java.util.List;
+
+/**
+ * One page of tasks plus the cursor for the following page, {@code null} on the last page.
+ */
+public record TaskPage(List<Task> tasks, String next) {
+}
@@ -0,0 +1,10 @@
+package com.todolist.todolist.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results, the number of tasks that matched in total and the cursor for
+ * the following page, {@code null} on the last page.
+ */
+public record TaskSearchResult(List<Task> tasks, int total, String next) {
+}
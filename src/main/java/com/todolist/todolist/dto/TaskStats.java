@@ -0,0 +1,10 @@
+package com.todolist.todolist.dto;
+
+import java.util.Map;
+
+/**
+ * Task counts for the overview page. Overdue tasks are tasks that are not completed and whose due
+ * date lies before today.
+ */
+public record TaskStats(long total, Map<State, Long> byState, long overdue) {
+}
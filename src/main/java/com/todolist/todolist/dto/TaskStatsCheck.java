@@ -0,0 +1,7 @@
+package com.todolist.todolist.dto;
+
+/**
+ * The incrementally maintained counters next to a full recount from the database.
+ */
+public record TaskStatsCheck(TaskStats counted, TaskStats recounted, boolean consistent) {
+}
@@ -0,0 +1,10 @@
+package com.todolist.todolist.dto;
+
+import java.util.List;
+
+/**
+ * Moves tasks to the state {@code to}, either the tasks with the given {@code ids} or every task
+ * matching {@code filter}. Exactly one of the two must be set.
+ */
+public record TaskTransition(List<Long> ids, TaskFilter filter, State to) {
+}
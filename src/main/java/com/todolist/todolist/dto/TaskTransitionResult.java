@@ -0,0 +1,8 @@
+package com.todolist.todolist.dto;
+
+/**
+ * Outcome of a {@link TaskTransition}: tasks that moved to the new state, tasks that were already
+ * in it or no longer matched the filter, and requested ids that do not exist.
+ */
+public record TaskTransitionResult(long transitioned, long unchanged, long missing) {
+}
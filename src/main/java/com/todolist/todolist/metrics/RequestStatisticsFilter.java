@@ -0,0 +1,77 @@
+package com.todolist.todolist.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Records how many statements and entity loads each endpoint needs and flags requests that run
+ * more statements than the budget, which usually means an N+1 query or an accidental extra read.
+ */
+@Slf4j
+@Component
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final Set<String> exemptUris;
+
+    public RequestStatisticsFilter(MeterRegistry meterRegistry,
+                                   @Value("${todolist.metrics.statement-budget:10}") int statementBudget,
+                                   @Value("${todolist.metrics.statement-budget-exempt:}") Set<String> exemptUris) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.exemptUris = exemptUris;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatistics.stop();
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+        DistributionSummary.builder("task.request.statements")
+                .description("JDBC statements prepared per request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("task.request.entity.loads")
+                .description("Entities hydrated by Hibernate per request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getEntityLoads());
+        if (statistics.getStatements() > statementBudget && !exemptUris.contains(uri)) {
+            Counter.builder("task.request.statement.budget.exceeded")
+                    .description("Requests that ran more statements than the budget")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} ran {} statements, budget is {}: possible N+1 query", request.getMethod(), uri,
+                    statistics.getStatements(), statementBudget);
+        }
+    }
+}
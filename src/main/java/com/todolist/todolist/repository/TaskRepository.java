@@ -1,10 +1,10 @@
 package com.todolist.todolist.repository;
 
 import com.todolist.todolist.dto.Task;
-import org.springframework.data.repository.CrudRepository;
-import org.springframework.stereotype.Repository;
+import org.springframework.data.repository.ListCrudRepository;
 
-import java.util.Optional;
+import java.util.Collection;
 
-public interface TaskRepository extends CrudRepository<Task, Long> {
+public interface TaskRepository extends ListCrudRepository<Task, Long>, TaskRepositoryCustom {
+    long countByIdIn(Collection<Long> ids);
 }
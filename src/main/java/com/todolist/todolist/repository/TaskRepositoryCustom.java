@@ -0,0 +1,76 @@
+package com.todolist.todolist.repository;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskCount;
+import com.todolist.todolist.dto.TaskField;
+import com.todolist.todolist.dto.TaskFilter;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Queries that need more control over the persistence context than derived queries give.
+ */
+public interface TaskRepositoryCustom {
+    /**
+     * Keyset page of at most {@code limit} tasks matching the filter with an id above
+     * {@code afterId}, in id order. The state and due date predicates are served by the
+     * composite indexes declared on {@link Task}.
+     */
+    List<Task> findPage(TaskFilter filter, long afterId, int limit);
+
+    /**
+     * Same page as {@link #findPage(TaskFilter, long, int)}, but only the columns of {@code fields}
+     * plus id and version are read, into detached tasks with everything else left null.
+     */
+    List<Task> findPage(TaskFilter filter, long afterId, int limit, Set<TaskField> fields);
+
+    /**
+     * The task with the given id with only the columns of {@code fields} plus id and version read,
+     * bypassing the persistence context.
+     */
+    Optional<Task> findFieldsById(Long id, Set<TaskField> fields);
+
+    /**
+     * Streams every task in id order, handing each one to the action before it is detached so
+     * memory use does not grow with the table size.
+     */
+    void forEachTask(Consumer<? super Task> action);
+
+    /**
+     * Applies the non-null fields of {@code changes} to the task with a single UPDATE statement
+     * and returns the row as it was before the update. When {@code changes} carries a version the
+     * row is only updated if it still has that version. The result is empty if no row was updated.
+     */
+    Optional<Task> patch(Long id, Task changes);
+
+    /**
+     * Moves the tasks with the given ids that match {@code filter} and are not in {@code target}
+     * yet to {@code target} with a single UPDATE statement, and returns them as they were before.
+     */
+    List<Task> transitionState(Collection<Long> ids, TaskFilter filter, State target);
+
+    /**
+     * Deletes those of the given tasks that are completed and due before {@code dueBefore} with a
+     * single DELETE statement, and returns them as they were deleted.
+     */
+    List<Task> deleteCompleted(Collection<Long> ids, LocalDate dueBefore);
+
+    /**
+     * Number of tasks per state and due date, aggregated by the database so the result grows with
+     * the number of distinct due dates rather than the number of tasks.
+     */
+    List<TaskCount> countByStateAndDueDate();
+
+    /**
+     * Fingerprint of the page {@link #findPage} would return: a hash of the id and version of every
+     * row in it. It changes whenever a row in the page is created, updated or deleted, or moves in
+     * or out of the filter, and only reads ids and versions.
+     */
+    String pageVersion(TaskFilter filter, long afterId, int limit);
+}
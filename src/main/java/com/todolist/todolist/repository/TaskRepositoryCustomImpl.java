@@ -0,0 +1,233 @@
+package com.todolist.todolist.repository;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskCount;
+import com.todolist.todolist.dto.TaskField;
+import com.todolist.todolist.dto.TaskFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    static final int STREAM_FETCH_SIZE = 500;
+
+    // H2 returns the row as it was before the UPDATE from the statement itself, so a patch is one
+    // statement and one round trip and listeners still get to see what changed
+    private static final String PATCH_SQL = """
+            select id, title, description, due_date, state, version from old table (
+                update task set
+                    title = coalesce(cast(:title as varchar), title),
+                    description = coalesce(cast(:description as varchar), description),
+                    due_date = coalesce(cast(:dueDate as date), due_date),
+                    state = coalesce(cast(:state as tinyint), state),
+                    version = version + 1
+                where id = :id and (cast(:version as bigint) is null or version = :version))
+            """;
+
+    private static final String TRANSITION_SQL = """
+            select id, title, description, due_date, state, version from old table (
+                update task set state = :target, version = version + 1 where %s)
+            """;
+
+    private static final String DELETE_COMPLETED_SQL = """
+            select id, title, description, due_date, state, version from old table (
+                delete from task where id in (:ids) and state = :completed and due_date < :dueBefore)
+            """;
+
+    private static final String PAGE_SQL = """
+            select %s from task where %s order by id limit :limit
+            """;
+
+    private static final String FIELDS_BY_ID_SQL = """
+            select %s from task where id = :id
+            """;
+
+    private static final String PAGE_VERSION_SQL = """
+            select coalesce(rawtohex(hash('SHA-256', stringtoutf8(
+                    listagg(concat(id, ':', version), ',') within group (order by id)))), 'empty')
+            from (select id, version from task where %s order by id limit :limit) page
+            """;
+
+    private static final String COUNT_SQL = """
+            select state, due_date, count(*) as tasks from task group by state, due_date
+            """;
+
+    private static final String ALL_COLUMNS = columns(TaskField.ALL);
+
+    static final RowMapper<Task> TASK_ROW_MAPPER = projection(TaskField.ALL);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachTask(Consumer<? super Task> action) {
+        try (Stream<Task> tasks = entityManager.createQuery("select t from Task t order by t.id", Task.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            tasks.forEach(task -> {
+                action.accept(task);
+                entityManager.detach(task);
+            });
+        }
+    }
+
+    @Override
+    public List<Task> findPage(TaskFilter filter, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        String sql = PAGE_SQL.formatted(ALL_COLUMNS, pageCondition(filter, afterId, params));
+        return jdbcTemplate.query(sql, params, TASK_ROW_MAPPER);
+    }
+
+    @Override
+    public List<Task> findPage(TaskFilter filter, long afterId, int limit, Set<TaskField> fields) {
+        Set<TaskField> read = withKeys(fields);
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        String sql = PAGE_SQL.formatted(columns(read), pageCondition(filter, afterId, params));
+        return jdbcTemplate.query(sql, params, projection(read));
+    }
+
+    @Override
+    public Optional<Task> findFieldsById(Long id, Set<TaskField> fields) {
+        Set<TaskField> read = withKeys(fields);
+        String sql = FIELDS_BY_ID_SQL.formatted(columns(read));
+        return jdbcTemplate.query(sql, new MapSqlParameterSource("id", id), projection(read)).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Task> patch(Long id, Task changes) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("title", changes.getTitle())
+                .addValue("description", changes.getDescription())
+                .addValue("dueDate", changes.getDueDate())
+                .addValue("state", changes.getState() != null ? changes.getState().ordinal() : null)
+                .addValue("version", changes.getVersion());
+        return jdbcTemplate.query(PATCH_SQL, params, TASK_ROW_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public List<Task> transitionState(Collection<Long> ids, TaskFilter filter, State target) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("target", target.ordinal());
+        StringBuilder condition = new StringBuilder("id in (:ids) and (state is null or state <> :target)");
+        appendFilter(condition, filter, params);
+        return jdbcTemplate.query(TRANSITION_SQL.formatted(condition), params, TASK_ROW_MAPPER);
+    }
+
+    @Override
+    public List<Task> deleteCompleted(Collection<Long> ids, LocalDate dueBefore) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("completed", State.COMPLETED.ordinal())
+                .addValue("dueBefore", dueBefore);
+        return jdbcTemplate.query(DELETE_COMPLETED_SQL, params, TASK_ROW_MAPPER);
+    }
+
+    @Override
+    public List<TaskCount> countByStateAndDueDate() {
+        return jdbcTemplate.query(COUNT_SQL, (rs, rowNum) -> {
+            int state = rs.getInt("state");
+            return new TaskCount(rs.wasNull() ? null : State.values()[state],
+                    rs.getObject("due_date", LocalDate.class), rs.getLong("tasks"));
+        });
+    }
+
+    @Override
+    public String pageVersion(TaskFilter filter, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        String sql = PAGE_VERSION_SQL.formatted(pageCondition(filter, afterId, params));
+        return jdbcTemplate.queryForObject(sql, params, String.class);
+    }
+
+    /**
+     * The id is needed for the next cursor and the version for the ETag, so both are always read.
+     */
+    private static Set<TaskField> withKeys(Set<TaskField> fields) {
+        Set<TaskField> read = EnumSet.of(TaskField.ID, TaskField.VERSION);
+        read.addAll(fields);
+        return read;
+    }
+
+    private static String columns(Set<TaskField> fields) {
+        return fields.stream().map(TaskField::column).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Maps only the given columns onto a plain {@link Task}, so no entity is hydrated or tracked.
+     */
+    private static RowMapper<Task> projection(Set<TaskField> fields) {
+        return (rs, rowNum) -> {
+            Task task = new Task();
+            for (TaskField field : fields) {
+                read(rs, field, task);
+            }
+            return task;
+        };
+    }
+
+    private static void read(ResultSet rs, TaskField field, Task task) throws SQLException {
+        switch (field) {
+            case ID -> task.setId(rs.getLong("id"));
+            case TITLE -> task.setTitle(rs.getString("title"));
+            case DESCRIPTION -> task.setDescription(rs.getString("description"));
+            case DUE_DATE -> task.setDueDate(rs.getObject("due_date", LocalDate.class));
+            case STATE -> {
+                int state = rs.getInt("state");
+                task.setState(rs.wasNull() ? null : State.values()[state]);
+            }
+            case VERSION -> task.setVersion(rs.getLong("version"));
+        }
+    }
+
+    /**
+     * Only the predicates that are actually set end up in the statement, so the planner can pick
+     * the matching index instead of evaluating "param is null or ..." for every row.
+     */
+    private static String pageCondition(TaskFilter filter, long afterId, MapSqlParameterSource params) {
+        StringBuilder condition = new StringBuilder("id > :afterId");
+        params.addValue("afterId", afterId);
+        appendFilter(condition, filter, params);
+        return condition.toString();
+    }
+
+    private static void appendFilter(StringBuilder condition, TaskFilter filter, MapSqlParameterSource params) {
+        if (filter.state() != null) {
+            condition.append(" and state = :state");
+            params.addValue("state", filter.state().ordinal());
+        }
+        if (filter.dueFrom() != null) {
+            condition.append(" and due_date >= :dueFrom");
+            params.addValue("dueFrom", filter.dueFrom());
+        }
+        if (filter.dueTo() != null) {
+            condition.append(" and due_date <= :dueTo");
+            params.addValue("dueTo", filter.dueTo());
+        }
+    }
+}
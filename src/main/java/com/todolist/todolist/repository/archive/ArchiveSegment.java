@@ -0,0 +1,186 @@
+package com.todolist.todolist.repository.archive;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binary layout of one archive segment. Tasks are stored column by column in id order, so similar
+ * values sit next to each other and compress well: ids as deltas, numbers as variable length
+ * integers and everything but the ids gzipped. The ids stay uncompressed in front, so the index can
+ * be rebuilt on startup without inflating the rest.
+ *
+ * <pre>
+ * int magic | int count | varlong id deltas | int columnsLength |
+ * gzip(varlong versions, byte states, varlong dueDates, strings titles, strings descriptions)
+ * </pre>
+ * Nullable numbers are stored shifted by one with 0 for null, strings as their UTF-8 length plus one
+ * followed by the bytes.
+ */
+final class ArchiveSegment {
+    private static final int MAGIC = 0x5441_5243;
+
+    private ArchiveSegment() {
+    }
+
+    static byte[] encode(List<Task> tasks) {
+        List<Task> sorted = tasks.stream().sorted(Comparator.comparing(Task::getId)).toList();
+        try {
+            ByteArrayOutputStream columns = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(columns))) {
+                for (Task task : sorted) {
+                    writeVarLong(out, task.getVersion() == null ? 0 : task.getVersion() + 1);
+                }
+                for (Task task : sorted) {
+                    out.writeByte(task.getState() == null ? -1 : task.getState().ordinal());
+                }
+                for (Task task : sorted) {
+                    writeVarLong(out, task.getDueDate() == null ? 0 : zigZag(task.getDueDate().toEpochDay()) + 1);
+                }
+                for (Task task : sorted) {
+                    writeString(out, task.getTitle());
+                }
+                for (Task task : sorted) {
+                    writeString(out, task.getDescription());
+                }
+            }
+            ByteArrayOutputStream segment = new ByteArrayOutputStream(columns.size() + 8 + sorted.size() * 2);
+            DataOutputStream out = new DataOutputStream(segment);
+            out.writeInt(MAGIC);
+            out.writeInt(sorted.size());
+            long previous = 0;
+            for (Task task : sorted) {
+                writeVarLong(out, task.getId() - previous);
+                previous = task.getId();
+            }
+            out.writeInt(columns.size());
+            columns.writeTo(out);
+            return segment.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Only the ids, read without inflating the other columns.
+     */
+    static long[] ids(byte[] segment) {
+        try {
+            return readIds(header(segment));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<Task> decode(byte[] segment) {
+        try {
+            DataInputStream in = header(segment);
+            long[] ids = readIds(in);
+            int columnsLength = in.readInt();
+            int columnsOffset = segment.length - in.available();
+            List<Task> tasks = new ArrayList<>(ids.length);
+            try (DataInputStream columns = new DataInputStream(new GZIPInputStream(
+                    new ByteArrayInputStream(segment, columnsOffset, columnsLength)))) {
+                for (long id : ids) {
+                    Task task = new Task();
+                    task.setId(id);
+                    long version = readVarLong(columns);
+                    task.setVersion(version == 0 ? null : version - 1);
+                    tasks.add(task);
+                }
+                for (Task task : tasks) {
+                    byte state = columns.readByte();
+                    task.setState(state < 0 ? null : State.values()[state]);
+                }
+                for (Task task : tasks) {
+                    long dueDate = readVarLong(columns);
+                    task.setDueDate(dueDate == 0 ? null : LocalDate.ofEpochDay(unZigZag(dueDate - 1)));
+                }
+                for (Task task : tasks) {
+                    task.setTitle(readString(columns));
+                }
+                for (Task task : tasks) {
+                    task.setDescription(readString(columns));
+                }
+            }
+            return tasks;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static DataInputStream header(byte[] segment) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(segment));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an archive segment");
+        }
+        return in;
+    }
+
+    private static long[] readIds(DataInputStream in) throws IOException {
+        long[] ids = new long[in.readInt()];
+        long previous = 0;
+        for (int i = 0; i < ids.length; i++) {
+            previous += readVarLong(in);
+            ids[i] = previous;
+        }
+        return ids;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        return length == 0 ? null : new String(in.readNBytes((int) (length - 1)), StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
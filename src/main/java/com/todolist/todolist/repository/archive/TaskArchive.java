@@ -0,0 +1,339 @@
+package com.todolist.todolist.repository.archive;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.todolist.todolist.dto.Task;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only cold store for archived tasks on local disk. Every archived batch becomes one
+ * immutable, compressed {@link ArchiveSegment} file. Only each segment's sorted id column is kept in
+ * memory, found through its id range, and recently read segments are cached decoded.
+ * <p>
+ * A batch is archived in two steps so it is never lost or half written: {@link #prepare} writes and
+ * forces it as a {@code .pending} file before the tasks are deleted from the live table, and
+ * {@link #commit} moves it into place once that delete has committed. {@link #get} already serves
+ * prepared tasks, so a task is readable throughout; callers look in the live table first, which
+ * still holds the task until the delete commits. A pending file left by a crash is settled by
+ * {@link #recoverPending}, which keeps only the tasks no longer in the table.
+ */
+@Slf4j
+@Repository
+public class TaskArchive {
+    private static final Pattern FILE_NAME = Pattern.compile("archive-(\\d{16})\\.seg(\\.pending)?");
+    private static final int CACHED_SEGMENTS = 64;
+
+    private final Path directory;
+    private final boolean writable;
+    private final ConcurrentSkipListMap<Long, Map<Long, Task>> prepared = new ConcurrentSkipListMap<>();
+    private final LoadingCache<Long, Map<Long, Task>> segments;
+    // Oldest segment first, replaced whole on every commit so readers never lock
+    private volatile Segment[] committed = new Segment[0];
+    private volatile int size;
+    private long nextSegment = 1;
+
+    public TaskArchive(@Value("${todolist.archive.directory:data/archive}") Path directory,
+                       @Value("${todolist.archive.enabled:false}") boolean enabled) {
+        this.directory = directory;
+        this.writable = enabled;
+        this.segments = Caffeine.newBuilder()
+                .maximumSize(CACHED_SEGMENTS)
+                .build(number -> ArchiveSegment.decode(read(path(number, false))).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity())));
+        // Tasks archived earlier stay readable even while archiving is switched off
+        if (enabled || Files.isDirectory(directory)) {
+            load();
+        }
+    }
+
+    public Optional<Task> get(long id) {
+        // Prepared before committed: a commit publishes the segment before it stops serving it as prepared
+        for (Map<Long, Task> tasks : prepared.descendingMap().values()) {
+            Task task = tasks.get(id);
+            if (task != null) {
+                return Optional.of(task.copy());
+            }
+        }
+        Segment[] committed = this.committed;
+        // A task archived twice, e.g. after a retried run, resolves to its newest segment
+        for (int i = committed.length - 1; i >= 0; i--) {
+            if (committed[i].contains(id)) {
+                return Optional.ofNullable(segments.get(committed[i].number()).get(id)).map(Task::copy);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * At most {@code limit} archived tasks with an id above {@code afterId}, in id order. Only
+     * committed segments are listed.
+     */
+    public List<Task> findPage(long afterId, int limit) {
+        List<Task> page = new ArrayList<>(Math.min(limit, 64));
+        SegmentCursors cursors = new SegmentCursors(committed, afterId);
+        while (page.size() < limit && cursors.hasNext()) {
+            Segment segment = cursors.segment();
+            long id = cursors.next();
+            page.add(segments.get(segment.number()).get(id).copy());
+        }
+        return page;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes the tasks to a new pending segment and forces it to disk. They are not visible until
+     * the segment is committed.
+     */
+    public synchronized PendingSegment prepare(List<Task> tasks) {
+        if (!writable) {
+            throw new IllegalStateException("Archiving is not enabled");
+        }
+        byte[] segment = ArchiveSegment.encode(tasks);
+        PendingSegment pending = new PendingSegment(nextSegment++, ArchiveSegment.ids(segment));
+        write(path(pending.number(), true), segment);
+        prepared.put(pending.number(), tasks.stream().map(Task::copy).collect(Collectors.toMap(Task::getId, Function.identity())));
+        return pending;
+    }
+
+    public synchronized void commit(PendingSegment pending) {
+        move(path(pending.number(), true), path(pending.number(), false));
+        index(new Segment(pending.number(), pending.ids()));
+        prepared.remove(pending.number());
+    }
+
+    /**
+     * Stops serving a prepared segment whose delete did not commit. The file stays behind for
+     * {@link #recoverPending}, as a failed commit may still have deleted the tasks.
+     */
+    public void abandon(PendingSegment pending) {
+        prepared.remove(pending.number());
+    }
+
+    /**
+     * Settles pending segments left behind by a failed or interrupted archiving run: tasks that are
+     * still {@code live} were never deleted and are dropped from the segment, the rest were and are
+     * committed.
+     */
+    public synchronized void recoverPending(Predicate<Long> live) {
+        for (long number : numbers(true)) {
+            Path pendingPath = path(number, true);
+            List<Task> pendingTasks = ArchiveSegment.decode(read(pendingPath));
+            List<Task> archived = pendingTasks.stream().filter(task -> !live.test(task.getId())).toList();
+            if (archived.isEmpty()) {
+                deleteQuietly(pendingPath);
+                continue;
+            }
+            if (archived.size() < pendingTasks.size()) {
+                // Replaced whole, so a crash here leaves either the old or the new pending segment
+                Path temporary = pendingPath.resolveSibling(pendingPath.getFileName() + ".tmp");
+                write(temporary, ArchiveSegment.encode(archived));
+                move(temporary, pendingPath);
+            }
+            commit(new PendingSegment(number, archived.stream().mapToLong(Task::getId).toArray()));
+            log.info("Recovered {} archived tasks from {}", archived.size(), pendingPath);
+        }
+    }
+
+    private void load() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> paths = Files.list(directory)) {
+                paths.filter(path -> path.getFileName().toString().endsWith(".tmp")).forEach(TaskArchive::deleteQuietly);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open task archive in " + directory, e);
+        }
+        List<Long> numbers = numbers(false);
+        committed = numbers.stream()
+                .map(number -> new Segment(number, ArchiveSegment.ids(read(path(number, false)))))
+                .filter(segment -> segment.ids().length > 0)
+                .toArray(Segment[]::new);
+        // Counted in one merge, checking every id against every other segment would be quadratic
+        int distinct = 0;
+        for (SegmentCursors cursors = new SegmentCursors(committed, 0L); cursors.hasNext(); cursors.next()) {
+            distinct++;
+        }
+        size = distinct;
+        nextSegment = Stream.concat(numbers.stream(), numbers(true).stream()).mapToLong(Long::longValue).max().orElse(0) + 1;
+        log.info("Loaded {} archived tasks from {} segments in {}", size, committed.length, directory);
+    }
+
+    private void index(Segment segment) {
+        if (segment.ids().length == 0) {
+            return;
+        }
+        Segment[] current = committed;
+        int added = 0;
+        for (long id : segment.ids()) {
+            if (Arrays.stream(current).noneMatch(other -> other.contains(id))) {
+                added++;
+            }
+        }
+        // Recovery can commit a segment after newer ones, keep them in segment order
+        int position = 0;
+        while (position < current.length && current[position].number() < segment.number()) {
+            position++;
+        }
+        Segment[] next = new Segment[current.length + 1];
+        System.arraycopy(current, 0, next, 0, position);
+        next[position] = segment;
+        System.arraycopy(current, position, next, position + 1, current.length - position);
+        committed = next;
+        size += added;
+    }
+
+    private List<Long> numbers(boolean pending) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(path -> FILE_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .filter(name -> (name.group(2) != null) == pending)
+                    .map(name -> Long.parseLong(name.group(1)))
+                    .sorted(Comparator.naturalOrder())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list " + directory, e);
+        }
+    }
+
+    private Path path(long number, boolean pending) {
+        return directory.resolve("archive-%016d.seg%s".formatted(number, pending ? ".pending" : ""));
+    }
+
+    private static byte[] read(Path path) {
+        try {
+            return Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive segment " + path, e);
+        }
+    }
+
+    private static void write(Path path, byte[] segment) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(segment);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive segment " + path, e);
+        }
+    }
+
+    private static void move(Path source, Path target) {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not move " + source + " to " + target, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    /**
+     * A segment written by {@link #prepare} that is waiting to be committed.
+     */
+    public record PendingSegment(long number, long[] ids) {
+    }
+
+    /**
+     * A committed segment's number and sorted id column.
+     */
+    private record Segment(long number, long[] ids) {
+        boolean contains(long id) {
+            return id >= ids[0] && id <= ids[ids.length - 1] && Arrays.binarySearch(ids, id) >= 0;
+        }
+
+        int firstAfter(long id) {
+            int position = Arrays.binarySearch(ids, id);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+    }
+
+    /**
+     * Walks the ids of all segments above a starting id in order, merging the id columns through a
+     * heap. An id in several segments is returned once, from the newest of them.
+     */
+    private static final class SegmentCursors {
+        private final Segment[] segments;
+        private final int[] positions;
+        // Indexes into segments, ordered by their current id and the newest segment first on ties
+        private final PriorityQueue<Integer> heap;
+
+        SegmentCursors(Segment[] segments, long afterId) {
+            this.segments = segments;
+            this.positions = new int[segments.length];
+            this.heap = new PriorityQueue<>(Math.max(segments.length, 1),
+                    Comparator.<Integer>comparingLong(this::currentId).thenComparing(Comparator.reverseOrder()));
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].ids()[segments[i].ids().length - 1] > afterId) {
+                    positions[i] = segments[i].firstAfter(afterId);
+                    heap.add(i);
+                }
+            }
+        }
+
+        boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        /**
+         * The segment the next id is read from.
+         */
+        Segment segment() {
+            return segments[heap.element()];
+        }
+
+        long next() {
+            long id = currentId(heap.element());
+            while (!heap.isEmpty() && currentId(heap.element()) == id) {
+                int segment = heap.poll();
+                if (++positions[segment] < segments[segment].ids().length) {
+                    heap.add(segment);
+                }
+            }
+            return id;
+        }
+
+        private long currentId(int segment) {
+            return segments[segment].ids()[positions[segment]];
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.todolist.todolist.repository.log;
+
+/**
+ * When appended records are forced from the page cache to disk. Records are written to memory mapped
+ * files, so they survive a crash of the process under every policy; the policy only decides how much
+ * can be lost when the whole machine goes down.
+ */
+public enum FsyncPolicy {
+    /**
+     * Force every record before the write returns. Nothing acknowledged is ever lost.
+     */
+    ALWAYS,
+    /**
+     * Force the active segment on a fixed interval, losing at most that interval on power loss.
+     */
+    INTERVAL,
+    /**
+     * Leave writing back to the operating system.
+     */
+    NEVER,
+}
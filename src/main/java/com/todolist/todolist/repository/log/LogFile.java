@@ -0,0 +1,135 @@
+package com.todolist.todolist.repository.log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A segment or snapshot file mapped into memory. Segments are created at their full size up front,
+ * so the unwritten rest of a segment reads as zeros. The mapping stays valid after the channel is
+ * closed and, on Linux, after the file is deleted, so readers holding a location into a file that
+ * compaction just removed still read the right bytes.
+ */
+final class LogFile {
+    private final long number;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final boolean snapshot;
+    // Only touched by the thread holding the log's write lock
+    private int writePosition;
+
+    private LogFile(long number, Path path, MappedByteBuffer buffer, boolean snapshot) {
+        this.number = number;
+        this.path = path;
+        this.buffer = buffer;
+        this.snapshot = snapshot;
+    }
+
+    static LogFile createSegment(Path path, long number, int size) {
+        return map(path, number, EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE),
+                FileChannel.MapMode.READ_WRITE, size, false);
+    }
+
+    static LogFile openSegment(Path path, long number) {
+        return map(path, number, EnumSet.of(StandardOpenOption.READ, StandardOpenOption.WRITE),
+                FileChannel.MapMode.READ_WRITE, -1, false);
+    }
+
+    static LogFile openSnapshot(Path path, long number) {
+        return map(path, number, EnumSet.of(StandardOpenOption.READ), FileChannel.MapMode.READ_ONLY, -1, true);
+    }
+
+    private static LogFile map(Path path, long number, Set<StandardOpenOption> options, FileChannel.MapMode mode,
+                               long size, boolean snapshot) {
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            // Mapping a region past the end of the file grows the file to that size
+            return new LogFile(number, path, channel.map(mode, 0, size < 0 ? channel.size() : size), snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map " + path, e);
+        }
+    }
+
+    long number() {
+        return number;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    boolean isSnapshot() {
+        return snapshot;
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    LogRecord read(int offset) {
+        return LogRecord.decode(buffer, offset);
+    }
+
+    boolean fits(int length) {
+        return writePosition + length <= buffer.capacity();
+    }
+
+    int append(byte[] record) {
+        int offset = writePosition;
+        buffer.put(offset, record);
+        writePosition += record.length;
+        return offset;
+    }
+
+    void force(int offset, int length) {
+        buffer.force(offset, length);
+    }
+
+    void force() {
+        if (!snapshot) {
+            buffer.force();
+        }
+    }
+
+    boolean isBlankFrom(int offset) {
+        int position = offset;
+        for (; position <= buffer.capacity() - Long.BYTES; position += Long.BYTES) {
+            if (buffer.getLong(position) != 0) {
+                return false;
+            }
+        }
+        for (; position < buffer.capacity(); position++) {
+            if (buffer.get(position) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Continues appending at {@code offset}, wiping whatever a torn write left behind it so it can
+     * never be mistaken for a record later.
+     */
+    void truncateAt(int offset) {
+        writePosition = offset;
+        if (!isBlankFrom(offset)) {
+            for (int position = offset; position < buffer.capacity(); position++) {
+                buffer.put(position, (byte) 0);
+            }
+            buffer.force();
+        }
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete " + path, e);
+        }
+    }
+}
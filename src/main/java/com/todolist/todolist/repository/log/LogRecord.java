@@ -0,0 +1,129 @@
+package com.todolist.todolist.repository.log;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of one log entry: the body length, a CRC32C of the body and the body itself. A zero
+ * length marks the end of the written part of a segment, and a record whose checksum does not match
+ * is treated the same way, which is how a write torn by a crash is detected.
+ *
+ * <pre>
+ * int length | int crc | byte type | long id | PUT only: long version, byte state, long dueDate,
+ *                                                        int titleLength, title, int descriptionLength, description
+ * </pre>
+ */
+record LogRecord(byte type, long id, Task task, int size) {
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    // Carries the next id to hand out, so ids of deleted tasks are not reused after a snapshot
+    static final byte SEQUENCE = 3;
+
+    private static final int HEADER_SIZE = 8;
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    static byte[] put(Task task) {
+        byte[] title = encode(task.getTitle());
+        byte[] description = encode(task.getDescription());
+        int bodyLength = 1 + 8 + 8 + 1 + 8 + 4 + length(title) + 4 + length(description);
+        ByteBuffer record = header(bodyLength, PUT, task.getId());
+        record.putLong(task.getVersion());
+        record.put(task.getState() == null ? -1 : (byte) task.getState().ordinal());
+        record.putLong(task.getDueDate() == null ? NO_DUE_DATE : task.getDueDate().toEpochDay());
+        putString(record, title);
+        putString(record, description);
+        return seal(record);
+    }
+
+    static byte[] delete(long id) {
+        return seal(header(1 + 8, DELETE, id));
+    }
+
+    static byte[] sequence(long nextId) {
+        return seal(header(1 + 8, SEQUENCE, nextId));
+    }
+
+    /**
+     * Reads the record at {@code offset}, or returns null if there is no complete, intact record
+     * there. Only absolute reads are used, so many threads can decode from the same buffer.
+     */
+    static LogRecord decode(ByteBuffer buffer, int offset) {
+        if (offset > buffer.capacity() - HEADER_SIZE) {
+            return null;
+        }
+        int bodyLength = buffer.getInt(offset);
+        if (bodyLength < 1 + 8 || bodyLength > buffer.capacity() - offset - HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer body = buffer.slice(offset + HEADER_SIZE, bodyLength);
+        CRC32C checksum = new CRC32C();
+        checksum.update(body.duplicate());
+        if ((int) checksum.getValue() != buffer.getInt(offset + 4)) {
+            return null;
+        }
+        byte type = body.get();
+        long id = body.getLong();
+        if (type == DELETE || type == SEQUENCE) {
+            return new LogRecord(type, id, null, HEADER_SIZE + bodyLength);
+        }
+        if (type != PUT) {
+            return null;
+        }
+        Task task = new Task();
+        task.setId(id);
+        task.setVersion(body.getLong());
+        byte state = body.get();
+        task.setState(state < 0 ? null : State.values()[state]);
+        long dueDate = body.getLong();
+        task.setDueDate(dueDate == NO_DUE_DATE ? null : LocalDate.ofEpochDay(dueDate));
+        task.setTitle(getString(body));
+        task.setDescription(getString(body));
+        return new LogRecord(type, id, task, HEADER_SIZE + bodyLength);
+    }
+
+    private static ByteBuffer header(int bodyLength, byte type, long id) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+        record.putInt(bodyLength);
+        record.putInt(0);
+        record.put(type);
+        record.putLong(id);
+        return record;
+    }
+
+    private static byte[] seal(ByteBuffer record) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(record.array(), HEADER_SIZE, record.capacity() - HEADER_SIZE);
+        record.putInt(4, (int) checksum.getValue());
+        return record.array();
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void putString(ByteBuffer record, byte[] value) {
+        record.putInt(value == null ? -1 : value.length);
+        if (value != null) {
+            record.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        body.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,247 @@
+package com.todolist.todolist.repository.log;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskCount;
+import com.todolist.todolist.dto.TaskField;
+import com.todolist.todolist.dto.TaskFilter;
+import com.todolist.todolist.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link TaskRepository} on top of a {@link TaskLog} instead of JPA, enabled with
+ * {@code todolist.storage.engine=log}. Tasks survive restarts and key lookups skip the persistence
+ * context entirely. Filtered listings scan the id index, as the log keeps no secondary indexes.
+ * <p>
+ * Writes to the log are not part of database transactions: a bulk save is applied as one batch
+ * under the log's write lock but is not undone if the surrounding transaction rolls back.
+ */
+@Slf4j
+@Primary
+@Repository
+@ConditionalOnProperty(name = "todolist.storage.engine", havingValue = "log")
+public class LogTaskRepository implements TaskRepository {
+    private final TaskLog taskLog;
+    private final ScheduledExecutorService maintenance;
+
+    public LogTaskRepository(@Value("${todolist.storage.log.directory:data/tasks}") Path directory,
+                             @Value("${todolist.storage.log.segment-size-mb:64}") int segmentSizeMb,
+                             @Value("${todolist.storage.log.fsync:interval}") FsyncPolicy fsyncPolicy,
+                             @Value("${todolist.storage.log.fsync-interval-ms:200}") long fsyncIntervalMs,
+                             @Value("${todolist.storage.log.snapshot-interval-seconds:300}") long snapshotIntervalSeconds) {
+        this.taskLog = TaskLog.open(directory, segmentSizeMb * 1024 * 1024, fsyncPolicy);
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("task-log-maintenance").daemon().factory());
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            maintenance.scheduleWithFixedDelay(() -> run(taskLog::sync, "sync"), fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        maintenance.scheduleWithFixedDelay(() -> run(taskLog::snapshot, "snapshot"),
+                snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        maintenance.shutdown();
+        maintenance.awaitTermination(30, TimeUnit.SECONDS);
+        taskLog.close();
+    }
+
+    @Override
+    public <S extends Task> S save(S entity) {
+        taskLog.save(List.of(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> entities) {
+        List<S> tasks = list(entities);
+        taskLog.save(tasks);
+        return tasks;
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return Optional.ofNullable(taskLog.get(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return taskLog.contains(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        try (Stream<Task> tasks = taskLog.tasksAfter(Long.MIN_VALUE)) {
+            return tasks.toList();
+        }
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<Long> ids) {
+        return StreamSupport.stream(ids.spliterator(), false).map(taskLog::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public long countByIdIn(Collection<Long> ids) {
+        return ids.stream().filter(taskLog::contains).count();
+    }
+
+    @Override
+    public long count() {
+        return taskLog.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        taskLog.delete(id);
+    }
+
+    @Override
+    public void delete(Task entity) {
+        taskLog.delete(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(taskLog::delete);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Task> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        findAll().forEach(this::delete);
+    }
+
+    @Override
+    public List<Task> findPage(TaskFilter filter, long afterId, int limit) {
+        try (Stream<Task> tasks = taskLog.tasksAfter(afterId)) {
+            return tasks.filter(task -> matches(filter, task)).limit(limit).toList();
+        }
+    }
+
+    // Tasks are already in memory, so there are no columns to skip and the caller picks the fields
+    @Override
+    public List<Task> findPage(TaskFilter filter, long afterId, int limit, Set<TaskField> fields) {
+        return findPage(filter, afterId, limit);
+    }
+
+    @Override
+    public Optional<Task> findFieldsById(Long id, Set<TaskField> fields) {
+        return findById(id);
+    }
+
+    @Override
+    public void forEachTask(Consumer<? super Task> action) {
+        try (Stream<Task> tasks = taskLog.tasksAfter(Long.MIN_VALUE)) {
+            tasks.forEach(action);
+        }
+    }
+
+    @Override
+    public Optional<Task> patch(Long id, Task changes) {
+        return taskLog.patch(id, changes);
+    }
+
+    @Override
+    public List<Task> transitionState(Collection<Long> ids, TaskFilter filter, State target) {
+        List<Task> previousTasks = new ArrayList<>();
+        Task changes = new Task();
+        changes.setState(target);
+        for (Long id : ids) {
+            Task current = taskLog.get(id);
+            if (current != null && current.getState() != target && matches(filter, current)) {
+                // Patching at the version just read keeps a concurrent write from being overwritten
+                changes.setVersion(current.getVersion());
+                taskLog.patch(id, changes).ifPresent(previousTasks::add);
+            }
+        }
+        return previousTasks;
+    }
+
+    @Override
+    public List<Task> deleteCompleted(Collection<Long> ids, LocalDate dueBefore) {
+        List<Task> deletedTasks = new ArrayList<>();
+        for (Long id : ids) {
+            Task current = taskLog.get(id);
+            if (current != null && current.getState() == State.COMPLETED && current.getDueDate() != null
+                    && current.getDueDate().isBefore(dueBefore) && taskLog.delete(id)) {
+                deletedTasks.add(current);
+            }
+        }
+        return deletedTasks;
+    }
+
+    @Override
+    public List<TaskCount> countByStateAndDueDate() {
+        Map<TaskCount, Long> counts = new HashMap<>();
+        forEachTask(task -> counts.merge(new TaskCount(task.getState(), task.getDueDate(), 0), 1L, Long::sum));
+        return counts.entrySet().stream()
+                .map(count -> new TaskCount(count.getKey().state(), count.getKey().dueDate(), count.getValue()))
+                .toList();
+    }
+
+    @Override
+    public String pageVersion(TaskFilter filter, long afterId, int limit) {
+        List<Task> page = findPage(filter, afterId, limit);
+        if (page.isEmpty()) {
+            return "empty";
+        }
+        String rows = page.stream().map(task -> task.getId() + ":" + task.getVersion()).collect(Collectors.joining(","));
+        try {
+            return HexFormat.of().withUpperCase().formatHex(MessageDigest.getInstance("SHA-256").digest(rows.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every JVM supports SHA-256", e);
+        }
+    }
+
+    private static boolean matches(TaskFilter filter, Task task) {
+        return (filter.state() == null || filter.state() == task.getState())
+                && (filter.dueFrom() == null || (task.getDueDate() != null && !task.getDueDate().isBefore(filter.dueFrom())))
+                && (filter.dueTo() == null || (task.getDueDate() != null && !task.getDueDate().isAfter(filter.dueTo())));
+    }
+
+    private static <S> List<S> list(Iterable<S> entities) {
+        List<S> list = new ArrayList<>();
+        entities.forEach(list::add);
+        return list;
+    }
+
+    private static void run(Runnable task, String name) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive, the next run gets another chance
+            log.error("Task log {} failed", name, e);
+        }
+    }
+}
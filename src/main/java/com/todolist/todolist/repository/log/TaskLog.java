@@ -0,0 +1,383 @@
+package com.todolist.todolist.repository.log;
+
+import com.todolist.todolist.dto.Task;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only task store. Every write appends a record to the active memory mapped segment and
+ * points the in-memory id index at it; reads go straight from the index to the mapped record.
+ * Writers are serialised by one lock, readers never lock.
+ * <p>
+ * A snapshot writes every live task into one file covering all segments before the active one,
+ * after which those segments are deleted. That keeps both the disk usage and the recovery time
+ * proportional to the number of live tasks rather than to the number of writes. On startup the
+ * newest snapshot is loaded and the segments after it are replayed, stopping at the first torn
+ * record of the last segment.
+ */
+@Slf4j
+public class TaskLog implements Closeable {
+    private static final Pattern FILE_NAME = Pattern.compile("(segment|snapshot)-(\\d{16})\\.log");
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final ConcurrentSkipListMap<Long, Location> index = new ConcurrentSkipListMap<>();
+    private final List<LogFile> files = new CopyOnWriteArrayList<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private volatile LogFile active;
+    private long nextId = 1;
+
+    private TaskLog(Path directory, int segmentSize, FsyncPolicy fsyncPolicy) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    public static TaskLog open(Path directory, int segmentSize, FsyncPolicy fsyncPolicy) {
+        TaskLog log = new TaskLog(directory, segmentSize, fsyncPolicy);
+        log.recover();
+        return log;
+    }
+
+    public Task get(long id) {
+        Location location = index.get(id);
+        return location == null ? null : read(location);
+    }
+
+    public boolean contains(long id) {
+        return index.containsKey(id);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Live tasks with an id above {@code afterId} in id order, decoded lazily as the stream is consumed.
+     */
+    public Stream<Task> tasksAfter(long afterId) {
+        return index.tailMap(afterId, false).values().stream().map(TaskLog::read);
+    }
+
+    /**
+     * Writes the tasks, assigning ids to new ones and bumping the version of existing ones in place.
+     * All versions are checked before anything is written, so a conflict rejects the whole batch.
+     * A task that carries a version but has been deleted counts as a conflict.
+     */
+    public void save(List<? extends Task> tasks) {
+        writeLock.lock();
+        try {
+            for (Task task : tasks) {
+                if (task.getId() != null && task.getVersion() != null) {
+                    Task current = get(task.getId());
+                    // A versioned task was read from the log, so if it is gone it was deleted since, as JPA's merge reports it
+                    if (current == null) {
+                        throw new OptimisticLockingFailureException("Task " + task.getId() + " was deleted, expected version " + task.getVersion());
+                    }
+                    if (!task.getVersion().equals(current.getVersion())) {
+                        throw new OptimisticLockingFailureException(
+                                "Task " + task.getId() + " is at version " + current.getVersion() + ", expected " + task.getVersion());
+                    }
+                }
+            }
+            for (Task task : tasks) {
+                Task current = task.getId() == null ? null : get(task.getId());
+                if (task.getId() == null) {
+                    task.setId(nextId++);
+                } else {
+                    nextId = Math.max(nextId, task.getId() + 1);
+                }
+                task.setVersion(current == null ? 0L : current.getVersion() + 1);
+                index.put(task.getId(), append(LogRecord.put(task)));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Applies the non-null fields of {@code changes} and returns the task as it was before. Empty
+     * if there is no such task or {@code changes} carries a version the task is no longer at.
+     */
+    public Optional<Task> patch(long id, Task changes) {
+        writeLock.lock();
+        try {
+            Task current = get(id);
+            if (current == null || (changes.getVersion() != null && !changes.getVersion().equals(current.getVersion()))) {
+                return Optional.empty();
+            }
+            Task patched = current.copy();
+            if (changes.getTitle() != null) {
+                patched.setTitle(changes.getTitle());
+            }
+            if (changes.getDescription() != null) {
+                patched.setDescription(changes.getDescription());
+            }
+            if (changes.getDueDate() != null) {
+                patched.setDueDate(changes.getDueDate());
+            }
+            if (changes.getState() != null) {
+                patched.setState(changes.getState());
+            }
+            patched.setVersion(current.getVersion() + 1);
+            index.put(id, append(LogRecord.put(patched)));
+            return Optional.of(current);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean delete(long id) {
+        writeLock.lock();
+        try {
+            if (!index.containsKey(id)) {
+                return false;
+            }
+            append(LogRecord.delete(id));
+            index.remove(id);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the active segment to disk, for {@link FsyncPolicy#INTERVAL}.
+     */
+    public void sync() {
+        active.force();
+    }
+
+    /**
+     * Writes all live tasks into a snapshot and deletes the files it replaces. Only the index is
+     * copied while holding the write lock; the snapshot itself is written while writes continue
+     * into the new active segment.
+     */
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            long covered;
+            long sequence;
+            List<Map.Entry<Long, Location>> live;
+            writeLock.lock();
+            try {
+                if (active.writePosition() == 0) {
+                    return;
+                }
+                roll();
+                covered = active.number();
+                sequence = nextId;
+                live = new ArrayList<>(index.entrySet());
+            } finally {
+                writeLock.unlock();
+            }
+            int[] offsets = new int[live.size()];
+            LogFile snapshot = writeSnapshot(covered, sequence, live, offsets);
+            // Repoint only entries nobody has written since the copy; newer writes already point past the snapshot
+            for (int i = 0; i < live.size(); i++) {
+                index.replace(live.get(i).getKey(), live.get(i).getValue(), new Location(snapshot, offsets[i]));
+            }
+            files.add(snapshot);
+            List<LogFile> replaced = files.stream().filter(file -> file.number() < covered).toList();
+            files.removeAll(replaced);
+            replaced.forEach(LogFile::delete);
+            log.info("Snapshot of {} tasks replaced {} log files", live.size(), replaced.size());
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                active.force();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Location append(byte[] record) {
+        if (record.length > segmentSize) {
+            throw new IllegalArgumentException("Task is too large for a log segment of " + segmentSize + " bytes");
+        }
+        if (!active.fits(record.length)) {
+            roll();
+        }
+        int offset = active.append(record);
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            active.force(offset, record.length);
+        }
+        return new Location(active, offset);
+    }
+
+    private void roll() {
+        LogFile sealed = active;
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            sealed.force();
+        }
+        active = LogFile.createSegment(path("segment", sealed.number() + 1), sealed.number() + 1, segmentSize);
+        files.add(active);
+    }
+
+    private LogFile writeSnapshot(long covered, long sequence, List<Map.Entry<Long, Location>> live, int[] offsets) {
+        Path target = path("snapshot", covered);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            int offset = channel.write(ByteBuffer.wrap(LogRecord.sequence(sequence)));
+            for (int i = 0; i < live.size(); i++) {
+                byte[] record = LogRecord.put(read(live.get(i).getValue()));
+                offsets[i] = offset;
+                offset += channel.write(ByteBuffer.wrap(record));
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + target, e);
+        }
+        try {
+            // Recovery only ever sees a complete snapshot or none at all
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not move snapshot " + target + " into place", e);
+        }
+        return LogFile.openSnapshot(target, covered);
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> paths = Files.list(directory)) {
+                paths.filter(path -> path.getFileName().toString().endsWith(".tmp")).forEach(TaskLog::deleteQuietly);
+            }
+            List<Path> names;
+            try (Stream<Path> paths = Files.list(directory)) {
+                names = paths.filter(path -> FILE_NAME.matcher(path.getFileName().toString()).matches())
+                        .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                        .toList();
+            }
+            long covered = 0;
+            Path snapshotPath = null;
+            for (Path path : names) {
+                Matcher name = matcher(path);
+                if (name.group(1).equals("snapshot")) {
+                    covered = Long.parseLong(name.group(2));
+                    snapshotPath = path;
+                }
+            }
+            if (snapshotPath != null) {
+                LogFile snapshot = LogFile.openSnapshot(snapshotPath, covered);
+                replay(snapshot, false);
+                files.add(snapshot);
+            }
+            List<Path> segments = new ArrayList<>();
+            for (Path path : names) {
+                Matcher name = matcher(path);
+                long number = Long.parseLong(name.group(2));
+                boolean replaced = name.group(1).equals("snapshot") ? !path.equals(snapshotPath) : number < covered;
+                if (replaced) {
+                    // Left behind by a crash between writing a snapshot and deleting what it replaced
+                    deleteQuietly(path);
+                } else if (name.group(1).equals("segment")) {
+                    segments.add(path);
+                }
+            }
+            for (int i = 0; i < segments.size(); i++) {
+                LogFile segment = LogFile.openSegment(segments.get(i), Long.parseLong(matcher(segments.get(i)).group(2)));
+                replay(segment, i == segments.size() - 1);
+                files.add(segment);
+            }
+            if (segments.isEmpty()) {
+                active = LogFile.createSegment(path("segment", covered), covered, segmentSize);
+                files.add(active);
+            } else {
+                active = files.getLast();
+            }
+            log.info("Recovered {} tasks from {}", index.size(), directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open task log in " + directory, e);
+        }
+    }
+
+    private void replay(LogFile file, boolean last) {
+        int offset = 0;
+        for (LogRecord record = file.read(offset); record != null; record = file.read(offset)) {
+            switch (record.type()) {
+                case LogRecord.PUT -> index.put(record.id(), new Location(file, offset));
+                case LogRecord.DELETE -> index.remove(record.id());
+                default -> {
+                }
+            }
+            nextId = Math.max(nextId, record.type() == LogRecord.SEQUENCE ? record.id() : record.id() + 1);
+            offset += record.size();
+        }
+        if (file.isSnapshot()) {
+            return;
+        }
+        if (file.isBlankFrom(offset)) {
+            file.truncateAt(offset);
+        } else if (last) {
+            log.warn("Discarding a torn record at offset {} of {}", offset, file.path());
+            file.truncateAt(offset);
+        } else {
+            // Only possible if the disk lost data, as segments are forced before the next one is started
+            log.warn("Skipping the rest of {} after an unreadable record at offset {}", file.path(), offset);
+        }
+    }
+
+    private Path path(String kind, long number) {
+        return directory.resolve("%s-%016d.log".formatted(kind, number));
+    }
+
+    private static Matcher matcher(Path path) {
+        Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Not a log file: " + path);
+        }
+        return matcher;
+    }
+
+    private static Task read(Location location) {
+        LogRecord record = location.file().read(location.offset());
+        if (record == null || record.task() == null) {
+            throw new IllegalStateException("No task at offset " + location.offset() + " of " + location.file().path());
+        }
+        return record.task();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    private record Location(LogFile file, int offset) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.todolist.todolist.service;
+
+/**
+ * Open addressing hash map from task id to a long, kept in two primitive arrays so an entry costs
+ * two longs instead of a map node and two boxed values. Task ids start at 1, so 0 marks a free
+ * slot. Not thread safe.
+ */
+final class LongLongMap {
+    static final long MISSING = Long.MIN_VALUE;
+    private static final long FREE = 0L;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongLongMap() {
+        keys = new long[16];
+        values = new long[16];
+    }
+
+    long get(long key) {
+        int slot = find(key);
+        return keys[slot] == FREE ? MISSING : values[slot];
+    }
+
+    void put(long key, long value) {
+        int slot = find(key);
+        if (keys[slot] == FREE) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+        if (size * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+    }
+
+    long remove(long key) {
+        int slot = find(key);
+        if (keys[slot] == FREE) {
+            return MISSING;
+        }
+        long value = values[slot];
+        size--;
+        // Shift later entries of the probe sequence back so lookups never stop at the hole
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = FREE;
+        return value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
@@ -0,0 +1,149 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskFilter;
+import com.todolist.todolist.repository.TaskRepository;
+import com.todolist.todolist.repository.archive.TaskArchive;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves completed tasks whose due date is more than {@code completed-age-days} in the past from
+ * the live table into the {@link TaskArchive}, with {@code todolist.archive.enabled} set. Tasks have
+ * no completion time, so the due date is what decides their age, and tasks without one stay live.
+ * <p>
+ * Each batch of at most {@code batch-size} tasks is its own short transaction: the tasks are deleted,
+ * written to a pending archive segment that is forced to disk, and only then is the delete
+ * committed. Foreground writes only ever wait for one small batch. Archived tasks are published as
+ * deleted, so the cache and every derived view drop them from the live set.
+ */
+@Slf4j
+@Component
+public class TaskArchiver implements SmartInitializingSingleton {
+    private final TaskRepository taskRepository;
+    private final TaskArchive taskArchive;
+    private final TaskCache taskCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int completedAgeDays;
+    private final int batchSize;
+    private final long intervalSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    public TaskArchiver(TaskRepository taskRepository, TaskArchive taskArchive, TaskCache taskCache,
+                        PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher, Clock clock,
+                        @Value("${todolist.archive.enabled:false}") boolean enabled,
+                        @Value("${todolist.archive.completed-age-days:30}") int completedAgeDays,
+                        @Value("${todolist.archive.batch-size:500}") int batchSize,
+                        @Value("${todolist.archive.interval-seconds:60}") long intervalSeconds,
+                        @Value("${todolist.storage.engine:jpa}") String storageEngine) {
+        if (enabled && !storageEngine.equals("jpa")) {
+            // A batch that fails to reach the archive is only safe if its delete can be rolled back
+            throw new IllegalStateException("Archiving needs the jpa storage engine, not " + storageEngine);
+        }
+        this.taskRepository = taskRepository;
+        this.taskArchive = taskArchive;
+        this.taskCache = taskCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.completedAgeDays = completedAgeDays;
+        this.batchSize = batchSize;
+        this.intervalSeconds = intervalSeconds;
+        this.scheduler = enabled ? Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("task-archiver").daemon().factory()) : null;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::runSafely, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Archives batches until no task is old enough any more and returns how many were archived.
+     */
+    public int archive() {
+        // Pending segments are left behind when a batch failed after writing its segment
+        taskArchive.recoverPending(taskRepository::existsById);
+        LocalDate dueBefore = LocalDate.now(clock).minusDays(completedAgeDays);
+        TaskFilter archivable = new TaskFilter(State.COMPLETED, null, dueBefore.minusDays(1));
+        int archived = 0;
+        List<Task> candidates;
+        do {
+            candidates = taskRepository.findPage(archivable, 0L, batchSize);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            archived += archiveBatch(candidates.stream().map(Task::getId).toList(), dueBefore);
+        } while (candidates.size() == batchSize && !Thread.currentThread().isInterrupted());
+        if (archived > 0) {
+            log.info("Archived {} completed tasks due before {}", archived, dueBefore);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(List<Long> ids, LocalDate dueBefore) {
+        // The delete re-checks state and due date, so a task changed since it was picked stays live
+        TaskArchive.PendingSegment[] pending = new TaskArchive.PendingSegment[1];
+        List<Task> archived;
+        try {
+            archived = transactionTemplate.execute(status -> {
+                List<Task> deleted = taskRepository.deleteCompleted(ids, dueBefore);
+                if (!deleted.isEmpty()) {
+                    // Readable from here on, so a read between the delete and the commit below still finds them
+                    pending[0] = taskArchive.prepare(deleted);
+                }
+                return deleted;
+            });
+        } catch (RuntimeException e) {
+            if (pending[0] != null) {
+                taskArchive.abandon(pending[0]);
+            }
+            throw e;
+        }
+        if (archived == null || archived.isEmpty()) {
+            return 0;
+        }
+        taskArchive.commit(pending[0]);
+        for (Task task : archived) {
+            taskCache.evict(task.getId());
+            eventPublisher.publishEvent(TaskChangedEvent.deleted(task));
+        }
+        return archived.size();
+    }
+
+    private void runSafely() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive, the next run picks up where this one stopped
+            log.error("Archiving completed tasks failed", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.todolist.todolist.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskCacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for single tasks. Caffeine evicts with W-TinyLFU once the size
+ * limit is reached and expires entries after a fixed time as a safety net.
+ */
+@Component
+public class TaskCache implements MeterBinder {
+    private final Cache<Long, Task> cache;
+
+    public TaskCache(@Value("${todolist.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${todolist.cache.expire-after-write-seconds:300}") long expireAfterWriteSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached task or loads it. Loads for the same id are serialised with writes to
+     * that id, so a slow load can never overwrite a newer eviction. A {@code null} result is not cached.
+     */
+    public Task get(Long id, Function<Long, Task> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Evicts the task now and, when called inside a transaction, again once it completes so a
+     * read racing the uncommitted write cannot put the old row back.
+     */
+    public void evict(Long id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "tasks");
+    }
+
+    public TaskCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new TaskCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+}
@@ -0,0 +1,236 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.TaskChange;
+import com.todolist.todolist.dto.TaskChanges;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Numbers every committed task change with a revision and keeps the latest {@code capacity} of them
+ * in a ring buffer, so clients can ask for what changed since the revision they last saw instead of
+ * reloading the whole list. Clients that fall further behind than the buffer reaches are told to
+ * resync.
+ * <p>
+ * Revisions start from the startup time in microseconds, so they keep increasing across restarts
+ * and a revision handed out by an earlier process is always recognised as too old.
+ * <p>
+ * Each live subscriber has its own sender, a virtual thread started when there is something to
+ * send, which reads the changes after the last revision it sent straight from the ring. A slow or
+ * stalled client therefore never holds up the write that produced a change or delivery to other
+ * subscribers, and nothing is queued per change: a subscriber that falls further behind than the
+ * ring reaches is told to resync and dropped, like a polling client.
+ */
+@Slf4j
+@Component
+public class TaskChangeFeed {
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final int SEND_BATCH_SIZE = 100;
+
+    private final TaskChange[] ring;
+    private final long firstRevision;
+    private final ScheduledExecutorService heartbeats;
+    private final ExecutorService senders;
+    // Guarded by ring like head, spans as many retired tasks as the ring holds changes
+    private final TaskVersions versions;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long head;
+
+    public TaskChangeFeed(@Value("${todolist.changes.capacity:10000}") int capacity, Clock clock) {
+        this.ring = new TaskChange[capacity];
+        this.versions = new TaskVersions(capacity);
+        this.head = TimeUnit.MILLISECONDS.toMicros(clock.millis());
+        this.firstRevision = head + 1;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("task-change-feed").daemon().factory());
+        this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-change-feed-sender-", 0).factory());
+        heartbeats.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    /**
+     * Numbers the change, unless a newer version of the task has already been numbered. Events run
+     * after commit in whatever order the committing threads get there, and a client replaying the
+     * feed must end up with the newest version of every task.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskChange change;
+        synchronized (ring) {
+            if (event.after() == null) {
+                versions.delete(event.id());
+            } else if (versions.advance(event.id(), event.after().getVersion())) {
+                // The feed holds no tasks, only their recent versions
+                versions.retire(event.id());
+            } else {
+                log.debug("Not numbering stale version {} of task {}", event.after().getVersion(), event.id());
+                return;
+            }
+            change = new TaskChange(++head, event.type(), event.id(), event.after());
+            ring[index(change.revision())] = change;
+        }
+        subscriptions.forEach(Subscription::wake);
+    }
+
+    public long revision() {
+        synchronized (ring) {
+            return head;
+        }
+    }
+
+    /**
+     * Up to {@code limit} changes with a revision above {@code since}, oldest first.
+     */
+    public TaskChanges changesSince(long since, int limit) {
+        synchronized (ring) {
+            long oldest = Math.max(firstRevision, head - ring.length + 1);
+            if (since < oldest - 1 || since > head) {
+                return new TaskChanges(List.of(), head, true);
+            }
+            long last = Math.min(head, since + limit);
+            List<TaskChange> changes = new ArrayList<>((int) (last - since));
+            for (long revision = since + 1; revision <= last; revision++) {
+                changes.add(ring[index(revision)]);
+            }
+            return new TaskChanges(changes, last, false);
+        }
+    }
+
+    /**
+     * Sends the listener every change after {@code since}, or only new changes when {@code since} is
+     * null, and then each change as it is committed. A listener that throws is unsubscribed.
+     */
+    public Subscription subscribe(Long since, Listener listener) {
+        Subscription subscription = new Subscription(listener, since != null ? since : revision());
+        subscriptions.add(subscription);
+        subscription.wake();
+        return subscription;
+    }
+
+    private void heartbeat() {
+        subscriptions.removeIf(subscription -> !subscription.active);
+        subscriptions.forEach(Subscription::heartbeat);
+    }
+
+    private int index(long revision) {
+        return (int) (revision % ring.length);
+    }
+
+    public interface Listener {
+        void onChange(TaskChange change) throws Exception;
+
+        void onResyncRequired(long revision) throws Exception;
+
+        default void onHeartbeat() throws Exception {
+        }
+    }
+
+    public final class Subscription {
+        private final Listener listener;
+        private final AtomicInteger wakeups = new AtomicInteger();
+        private volatile boolean active = true;
+        private volatile boolean heartbeatDue;
+        // Only touched by the sender
+        private long lastSent;
+
+        private Subscription(Listener listener, long since) {
+            this.listener = listener;
+            this.lastSent = since;
+        }
+
+        public void cancel() {
+            active = false;
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Starts the sender unless it is already running, in which case it goes round once more.
+         */
+        private void wake() {
+            if (active && wakeups.getAndIncrement() == 0) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down, the connection is about to close anyway
+                    cancel();
+                }
+            }
+        }
+
+        private void heartbeat() {
+            heartbeatDue = true;
+            wake();
+        }
+
+        private void drain() {
+            int seen = wakeups.get();
+            while (true) {
+                sendPending();
+                if (wakeups.compareAndSet(seen, 0)) {
+                    return;
+                }
+                seen = wakeups.get();
+            }
+        }
+
+        private void sendPending() {
+            boolean sent = false;
+            while (active) {
+                TaskChanges pending = changesSince(lastSent, SEND_BATCH_SIZE);
+                if (pending.resyncRequired()) {
+                    send(() -> listener.onResyncRequired(pending.revision()));
+                    cancel();
+                    return;
+                }
+                if (pending.changes().isEmpty()) {
+                    break;
+                }
+                for (TaskChange change : pending.changes()) {
+                    send(() -> listener.onChange(change));
+                }
+                lastSent = pending.revision();
+                sent = true;
+            }
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                // Changes just sent already showed the connection is alive
+                if (!sent) {
+                    send(listener::onHeartbeat);
+                }
+            }
+        }
+
+        private void send(Delivery delivery) {
+            if (!active) {
+                return;
+            }
+            try {
+                delivery.run();
+            } catch (Exception e) {
+                log.debug("Dropping change feed subscriber", e);
+                cancel();
+            }
+        }
+    }
+
+    private interface Delivery {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,26 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.ChangeType;
+import com.todolist.todolist.dto.Task;
+
+/**
+ * Published by {@link TaskService} after every write so derived views can follow the table.
+ * {@code before} is null for creates and {@code after} is null for deletes.
+ */
+public record TaskChangedEvent(ChangeType type, Task before, Task after) {
+    public static TaskChangedEvent created(Task after) {
+        return new TaskChangedEvent(ChangeType.CREATED, null, after);
+    }
+
+    public static TaskChangedEvent updated(Task before, Task after) {
+        return new TaskChangedEvent(ChangeType.UPDATED, before, after);
+    }
+
+    public static TaskChangedEvent deleted(Task before) {
+        return new TaskChangedEvent(ChangeType.DELETED, before, null);
+    }
+
+    public Long id() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
@@ -0,0 +1,149 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskCount;
+import com.todolist.todolist.dto.TaskStats;
+import com.todolist.todolist.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Task counts per state and overdue tasks, kept up to date from {@link TaskChangedEvent}s instead of
+ * being counted on every read. Open tasks that are not overdue yet are counted per due date, and
+ * those counts move into the overdue counter once their date has passed, so reading the stats costs
+ * the same however many tasks there are.
+ */
+@Slf4j
+@Component
+public class TaskCounters implements SmartInitializingSingleton {
+    private final TaskRepository taskRepository;
+    private final Clock clock;
+    private final LongAdder total = new LongAdder();
+    private final Map<State, LongAdder> byState = new EnumMap<>(State.class);
+    private final LongAdder overdue = new LongAdder();
+    private final ConcurrentSkipListMap<LocalDate, LongAdder> openByDueDate = new ConcurrentSkipListMap<>();
+    // Writers share the read lock, only moving due dates into the overdue counter takes the write lock
+    private final ReentrantReadWriteLock rollOverLock = new ReentrantReadWriteLock();
+    private volatile LocalDate today;
+
+    public TaskCounters(TaskRepository taskRepository, Clock clock) {
+        this.taskRepository = taskRepository;
+        this.clock = clock;
+        for (State state : State.values()) {
+            byState.put(state, new LongAdder());
+        }
+        today = LocalDate.now(clock);
+    }
+
+    /**
+     * Loads the counters from the database before the web server starts taking requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        taskRepository.countByStateAndDueDate().forEach(count -> add(count.state(), count.dueDate(), count.count()));
+        log.info("Loaded task counters: {}", stats());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.before() != null) {
+            add(event.before().getState(), event.before().getDueDate(), -1);
+        }
+        if (event.after() != null) {
+            add(event.after().getState(), event.after().getDueDate(), 1);
+        }
+    }
+
+    /**
+     * Current counts. Writes landing while the counters are read may show up in some counters and
+     * not yet in others.
+     */
+    public TaskStats stats() {
+        rollOver();
+        Map<State, Long> counts = new EnumMap<>(State.class);
+        byState.forEach((state, count) -> counts.put(state, count.sum()));
+        return new TaskStats(total.sum(), counts, overdue.sum());
+    }
+
+    /**
+     * Counts the tasks from scratch with a single aggregate query, for comparison with {@link #stats()}.
+     */
+    public TaskStats recount() {
+        LocalDate now = LocalDate.now(clock);
+        List<TaskCount> counts = taskRepository.countByStateAndDueDate();
+        long recountedTotal = 0;
+        long recountedOverdue = 0;
+        Map<State, Long> recountedByState = new EnumMap<>(State.class);
+        for (State state : State.values()) {
+            recountedByState.put(state, 0L);
+        }
+        for (TaskCount count : counts) {
+            recountedTotal += count.count();
+            if (count.state() != null) {
+                recountedByState.merge(count.state(), count.count(), Long::sum);
+            }
+            if (isOpen(count.state()) && count.dueDate() != null && count.dueDate().isBefore(now)) {
+                recountedOverdue += count.count();
+            }
+        }
+        return new TaskStats(recountedTotal, recountedByState, recountedOverdue);
+    }
+
+    private void add(State state, LocalDate dueDate, long delta) {
+        rollOver();
+        rollOverLock.readLock().lock();
+        try {
+            total.add(delta);
+            if (state != null) {
+                byState.get(state).add(delta);
+            }
+            if (isOpen(state) && dueDate != null) {
+                if (dueDate.isBefore(today)) {
+                    overdue.add(delta);
+                } else {
+                    openByDueDate.computeIfAbsent(dueDate, date -> new LongAdder()).add(delta);
+                }
+            }
+        } finally {
+            rollOverLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the open tasks of every due date that has passed since the last call into the overdue
+     * counter. This runs at most once per day, so the write lock is practically never contended.
+     */
+    private void rollOver() {
+        LocalDate now = LocalDate.now(clock);
+        if (!now.isAfter(today)) {
+            return;
+        }
+        rollOverLock.writeLock().lock();
+        try {
+            if (now.isAfter(today)) {
+                Map<LocalDate, LongAdder> passed = openByDueDate.headMap(now);
+                passed.values().forEach(count -> overdue.add(count.sum()));
+                passed.clear();
+                today = now;
+            }
+        } finally {
+            rollOverLock.writeLock().unlock();
+        }
+    }
+
+    private static boolean isOpen(State state) {
+        return state != State.COMPLETED;
+    }
+}
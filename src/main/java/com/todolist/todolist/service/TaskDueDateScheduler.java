@@ -0,0 +1,160 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the ids of open tasks that are not overdue yet ordered by due date, and publishes
+ * {@link TasksOverdueEvent}s in batches once a due date has passed. The table is read once at
+ * startup and then followed through {@link TaskChangedEvent}s, so a tick only looks at the earliest
+ * due date and costs nothing beyond the tasks that actually came due.
+ */
+@Slf4j
+@Component
+public class TaskDueDateScheduler implements SmartInitializingSingleton {
+    private final TaskRepository taskRepository;
+    private final Clock clock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final long tickSeconds;
+    private final ScheduledExecutorService ticker;
+    // All three are guarded by this, versions are held for tracked tasks only
+    private final TreeMap<LocalDate, Set<Long>> tasksByDueDate = new TreeMap<>();
+    private final Map<Long, LocalDate> dueDates = new HashMap<>();
+    private final TaskVersions versions = new TaskVersions();
+    private LocalDate today;
+
+    public TaskDueDateScheduler(TaskRepository taskRepository, Clock clock, ApplicationEventPublisher eventPublisher,
+                                @Value("${todolist.due-dates.batch-size:500}") int batchSize,
+                                @Value("${todolist.due-dates.tick-seconds:60}") long tickSeconds) {
+        this.taskRepository = taskRepository;
+        this.clock = clock;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.tickSeconds = tickSeconds;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("task-due-dates").daemon().factory());
+        this.today = LocalDate.now(clock);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        taskRepository.forEachTask(this::load);
+        log.info("Tracking due dates of {} open tasks", size());
+        ticker.scheduleAtFixedRate(this::tickSafely, tickSeconds, tickSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Follows a committed change, ignoring it if a newer version of the task was already applied.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTaskChanged(TaskChangedEvent event) {
+        if (event.after() == null) {
+            untrack(event.id());
+            versions.delete(event.id());
+            return;
+        }
+        if (!versions.advance(event.id(), event.after().getVersion())) {
+            log.debug("Ignoring stale version {} of task {}", event.after().getVersion(), event.id());
+            return;
+        }
+        untrack(event.id());
+        if (isTrackable(event.after())) {
+            track(event.after());
+        } else {
+            versions.retire(event.id());
+        }
+    }
+
+    /**
+     * Publishes every tracked task whose due date is before today and stops tracking it.
+     */
+    void tick() {
+        LocalDate now = LocalDate.now(clock);
+        List<TasksOverdueEvent> events = new ArrayList<>();
+        synchronized (this) {
+            today = now;
+            while (!tasksByDueDate.isEmpty() && tasksByDueDate.firstKey().isBefore(now)) {
+                Map.Entry<LocalDate, Set<Long>> due = tasksByDueDate.pollFirstEntry();
+                List<Long> ids = new ArrayList<>(due.getValue());
+                for (Long id : ids) {
+                    dueDates.remove(id);
+                    versions.retire(id);
+                }
+                for (int from = 0; from < ids.size(); from += batchSize) {
+                    events.add(new TasksOverdueEvent(due.getKey(), List.copyOf(ids.subList(from, Math.min(ids.size(), from + batchSize)))));
+                }
+            }
+        }
+        // Published outside the lock so slow listeners never hold up writes
+        events.forEach(eventPublisher::publishEvent);
+    }
+
+    synchronized int size() {
+        return dueDates.size();
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive, the tasks stay tracked until a tick gets through
+            log.error("Publishing overdue tasks failed", e);
+        }
+    }
+
+    private synchronized void load(Task task) {
+        // A change event may already have overtaken the scan, which the version check catches
+        if (isTrackable(task) && versions.advance(task.getId(), task.getVersion())) {
+            untrack(task.getId());
+            track(task);
+        }
+    }
+
+    private boolean isTrackable(Task task) {
+        // Tasks that are already overdue have nothing left to fire
+        return task.getState() != State.COMPLETED && task.getDueDate() != null && !task.getDueDate().isBefore(today);
+    }
+
+    private void track(Task task) {
+        tasksByDueDate.computeIfAbsent(task.getDueDate(), date -> new LinkedHashSet<>()).add(task.getId());
+        dueDates.put(task.getId(), task.getDueDate());
+    }
+
+    private void untrack(Long id) {
+        LocalDate dueDate = dueDates.remove(id);
+        if (dueDate == null) {
+            return;
+        }
+        Set<Long> ids = tasksByDueDate.get(dueDate);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            tasksByDueDate.remove(dueDate);
+        }
+    }
+}
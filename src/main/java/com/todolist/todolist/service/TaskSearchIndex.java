@@ -0,0 +1,499 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over task titles and descriptions. Each term maps to a postings list of
+ * task ids kept as sorted primitive arrays, so queries are merges of arrays rather than table scans.
+ * All query terms must match, and the last one also matches as a prefix for search-as-you-type.
+ * Hits are ranked by term weight times inverse document frequency, with title terms counting double.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndex implements SmartInitializingSingleton {
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int TITLE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final TaskRepository taskRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    // Terms per task so a task can be taken out of the index without knowing its old text
+    private final HashMap<Long, String[]> documentTerms = new HashMap<>();
+    private final TaskVersions versions = new TaskVersions();
+
+    public TaskSearchIndex(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Builds the index before the web server starts taking requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        taskRepository.forEachTask(this::index);
+        log.info("Indexed {} tasks for search in {} ms", size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.after() == null) {
+            remove(event.id());
+        } else {
+            index(event.after());
+        }
+    }
+
+    /**
+     * Indexes the task unless a newer version of it has already been indexed or it was just deleted.
+     */
+    public void index(Task task) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        addTerms(weights, task.getTitle(), TITLE_WEIGHT);
+        addTerms(weights, task.getDescription(), DESCRIPTION_WEIGHT);
+        lock.writeLock().lock();
+        try {
+            if (!versions.advance(task.getId(), task.getVersion())) {
+                log.debug("Ignoring stale version {} of task {}", task.getVersion(), task.getId());
+                return;
+            }
+            removeLocked(task.getId());
+            String[] terms = new String[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+                postings.computeIfAbsent(weight.getKey(), term -> new Postings()).put(task.getId(), weight.getValue());
+                // Keep the instance already used as map key so every task shares one copy of each term
+                terms[i++] = postings.ceilingKey(weight.getKey());
+            }
+            documentTerms.put(task.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            versions.delete(id);
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids ranked {@code offset} to {@code offset + limit} for the query, best first.
+     * The postings of all terms are walked in place: the rarest term drives the intersection and
+     * the others skip ahead to its ids, while the expansions of the prefix term are merged on the fly.
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+        lock.readLock().lock();
+        try {
+            int documents = documentTerms.size();
+            TermCursor[] cursors = new TermCursor[tokens.size()];
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean last = i == tokens.size() - 1;
+                cursors[i] = last ? prefixCursor(tokens.get(i), documents) : exactCursor(tokens.get(i), documents);
+            }
+            // Scores are summed in query order, so ties rank the same whatever term drives the walk
+            TermCursor[] byQuery = cursors.clone();
+            Arrays.sort(cursors, Comparator.comparingInt(TermCursor::size));
+            TopHits top = new TopHits(offset + limit);
+            int total = 0;
+            long candidate = cursors[0].id();
+            while (candidate != TermCursor.EXHAUSTED) {
+                long agreed = candidate;
+                for (int i = 1; i < cursors.length && agreed == candidate; i++) {
+                    agreed = cursors[i].seek(candidate);
+                }
+                if (agreed != candidate) {
+                    candidate = cursors[0].seek(agreed);
+                    continue;
+                }
+                double score = 0;
+                for (TermCursor cursor : byQuery) {
+                    score += cursor.scoreAndAdvance();
+                }
+                top.offer(candidate, score);
+                total++;
+                candidate = cursors[0].id();
+            }
+            return new SearchHits(top.page(offset), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private void removeLocked(long id) {
+        String[] terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Postings termPostings = postings.get(term);
+            if (termPostings != null && termPostings.remove(id) && termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private TermCursor exactCursor(String token, int documents) {
+        Postings termPostings = postings.get(token);
+        return termPostings == null ? TermCursor.of(List.of(), documents) : TermCursor.of(List.of(termPostings), documents);
+    }
+
+    private TermCursor prefixCursor(String prefix, int documents) {
+        List<Postings> expansions = new ArrayList<>();
+        for (Postings termPostings : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (expansions.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            expansions.add(termPostings);
+        }
+        return TermCursor.of(expansions, documents);
+    }
+
+    private static double idf(int documents, int documentFrequency) {
+        return Math.log(1.0 + (double) documents / documentFrequency);
+    }
+
+    /**
+     * Ranked ids for one page of results plus the total number of matching tasks.
+     */
+    public record SearchHits(long[] ids, int total) {
+        static final SearchHits EMPTY = new SearchHits(new long[0], 0);
+    }
+
+    /**
+     * Task ids containing a term, sorted ascending, with the weight of the term in each task.
+     */
+    static final class Postings {
+        private long[] ids = new long[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        void put(long id, int weight) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                weights[index] = weight;
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            // New tasks have the highest ids, so this is almost always an append
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(weights, index, weights, index + 1, size - index);
+            ids[index] = id;
+            weights[index] = weight;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * Walks the postings of one query term, or of every expansion of a prefix, in ascending id order
+     * without copying them. Expansions are merged with a heap keyed on each one's current id.
+     */
+    static final class TermCursor {
+        static final long EXHAUSTED = Long.MAX_VALUE;
+
+        private final Postings[] postings;
+        private final double[] idfs;
+        private final int[] positions;
+        private final int[] heap;
+        private final int[] matched;
+        private int heapSize;
+        private final int size;
+
+        private TermCursor(Postings[] postings, double[] idfs, int size) {
+            this.postings = postings;
+            this.idfs = idfs;
+            this.positions = new int[postings.length];
+            this.heap = new int[postings.length];
+            this.matched = new int[postings.length];
+            this.size = size;
+            for (int term = 0; term < postings.length; term++) {
+                if (postings[term].size > 0) {
+                    heap[heapSize++] = term;
+                }
+            }
+            for (int index = heapSize / 2 - 1; index >= 0; index--) {
+                siftDown(index);
+            }
+        }
+
+        static TermCursor of(List<Postings> terms, int documents) {
+            double[] idfs = new double[terms.size()];
+            int size = 0;
+            for (int term = 0; term < terms.size(); term++) {
+                idfs[term] = idf(documents, terms.get(term).size);
+                size += terms.get(term).size;
+            }
+            return new TermCursor(terms.toArray(new Postings[0]), idfs, size);
+        }
+
+        /**
+         * Upper bound on the number of ids this cursor yields.
+         */
+        int size() {
+            return size;
+        }
+
+        long id() {
+            return heapSize == 0 ? EXHAUSTED : current(heap[0]);
+        }
+
+        /**
+         * Skips to the first id at or after {@code target} and returns it.
+         */
+        long seek(long target) {
+            while (heapSize > 0 && current(heap[0]) < target) {
+                int term = heap[0];
+                positions[term] = gallop(postings[term], positions[term] + 1, target);
+                restoreRoot(term);
+            }
+            return id();
+        }
+
+        /**
+         * Sums the score of the current id over every term containing it and moves past it.
+         */
+        double scoreAndAdvance() {
+            if (postings.length == 1) {
+                // Exact terms and prefixes with one expansion need no merging
+                int position = positions[0]++;
+                if (positions[0] == postings[0].size) {
+                    heapSize = 0;
+                }
+                return postings[0].weights[position] * idfs[0];
+            }
+            long id = id();
+            int matched = 0;
+            while (heapSize > 0 && current(heap[0]) == id) {
+                int term = heap[0];
+                this.matched[matched++] = term;
+                positions[term]++;
+                restoreRoot(term);
+            }
+            // Sum in term order rather than heap order so equal documents always get equal scores
+            if (matched > 1) {
+                Arrays.sort(this.matched, 0, matched);
+            }
+            double score = 0;
+            for (int i = 0; i < matched; i++) {
+                int term = this.matched[i];
+                score += postings[term].weights[positions[term] - 1] * idfs[term];
+            }
+            return score;
+        }
+
+        /**
+         * First position at or after {@code from} holding an id of at least {@code target}. Probes
+         * doubling distances before the binary search, since dense terms usually land a few ids ahead.
+         */
+        private static int gallop(Postings termPostings, int from, long target) {
+            long[] ids = termPostings.ids;
+            int size = termPostings.size;
+            if (from >= size || ids[from] >= target) {
+                return from;
+            }
+            int low = from;
+            int high = from + 1;
+            for (int step = 2; high < size && ids[high] < target; step <<= 1) {
+                low = high;
+                high = low + step;
+            }
+            int index = Arrays.binarySearch(ids, low + 1, Math.min(high, size), target);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private long current(int term) {
+            return postings[term].ids[positions[term]];
+        }
+
+        private void restoreRoot(int term) {
+            if (positions[term] == postings[term].size) {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(0);
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int left = 2 * index + 1;
+                int right = left + 1;
+                int smallest = index;
+                if (left < heapSize && current(heap[left]) < current(heap[smallest])) {
+                    smallest = left;
+                }
+                if (right < heapSize && current(heap[right]) < current(heap[smallest])) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                int tmp = heap[index];
+                heap[index] = heap[smallest];
+                heap[smallest] = tmp;
+                index = smallest;
+            }
+        }
+    }
+
+    /**
+     * Keeps the best {@code capacity} hits seen so far in a bounded heap instead of collecting and
+     * sorting every match. The root is always the worst hit kept.
+     */
+    static final class TopHits {
+        private final long[] ids;
+        private final double[] scores;
+        private int size;
+
+        TopHits(int capacity) {
+            ids = new long[capacity];
+            scores = new double[capacity];
+        }
+
+        /**
+         * Hits must be offered in ascending id order, so a later hit with an equal score ranks lower.
+         */
+        void offer(long id, double score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (size > 0 && score > scores[0]) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(size);
+            }
+        }
+
+        /**
+         * Returns the hits kept after the first {@code offset}, best first.
+         */
+        long[] page(int offset) {
+            if (size <= offset) {
+                return new long[0];
+            }
+            long[] ranked = new long[size];
+            // Popping the root yields the worst remaining hit, so fill from the back
+            for (int position = size - 1; position >= 0; position--) {
+                ranked[position] = ids[0];
+                swap(0, position);
+                siftDown(position);
+            }
+            size = 0;
+            return Arrays.copyOfRange(ranked, offset, ranked.length);
+        }
+
+        private boolean better(int a, int b) {
+            return scores[a] > scores[b] || (scores[a] == scores[b] && ids[a] < ids[b]);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!better(parent, index)) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int heapSize) {
+            int index = 0;
+            while (true) {
+                int left = 2 * index + 1;
+                int right = left + 1;
+                int worst = index;
+                if (left < heapSize && better(worst, left)) {
+                    worst = left;
+                }
+                if (right < heapSize && better(worst, right)) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
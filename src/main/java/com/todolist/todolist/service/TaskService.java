@@ -1,50 +1,434 @@
 package com.todolist.todolist.service;
 
+import com.todolist.todolist.datasource.ReplicaRead;
 import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskCacheStats;
+import com.todolist.todolist.dto.TaskChanges;
+import com.todolist.todolist.dto.TaskField;
+import com.todolist.todolist.dto.TaskFilter;
+import com.todolist.todolist.dto.TaskPage;
+import com.todolist.todolist.dto.TaskSearchResult;
+import com.todolist.todolist.dto.TaskStats;
+import com.todolist.todolist.dto.TaskStatsCheck;
+import com.todolist.todolist.dto.TaskTransition;
+import com.todolist.todolist.dto.TaskTransitionResult;
 import com.todolist.todolist.repository.TaskRepository;
+import com.todolist.todolist.repository.archive.TaskArchive;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "task.service", histogram = true)
 public class TaskService {
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BULK_SIZE = 10_000;
+    public static final int MAX_SEARCH_OFFSET = 10_000;
+    static final int TRANSITION_CHUNK_SIZE = 1000;
+
     private final TaskRepository taskRepository;
+    private final TaskCache taskCache;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskCounters taskCounters;
+    private final TaskWriteBatcher taskWriteBatcher;
+    private final TaskChangeFeed taskChangeFeed;
+    private final TaskArchive taskArchive;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, TaskCache taskCache, TaskSearchIndex taskSearchIndex,
+                       TaskCounters taskCounters, TaskWriteBatcher taskWriteBatcher, TaskChangeFeed taskChangeFeed,
+                       TaskArchive taskArchive, ApplicationEventPublisher eventPublisher) {
         this.taskRepository = taskRepository;
+        this.taskCache = taskCache;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskCounters = taskCounters;
+        this.taskWriteBatcher = taskWriteBatcher;
+        this.taskChangeFeed = taskChangeFeed;
+        this.taskArchive = taskArchive;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @ReplicaRead
+    public TaskPage getTasks(TaskFilter filter, String cursor, int limit) {
+        checkPageRequest(filter, limit);
+        long afterId = cursor == null ? 0L : TaskCursor.decode(cursor);
+        // Fetch one extra row to know whether there is a next page without a count query
+        return page(taskRepository.findPage(filter, afterId, limit + 1), limit);
+    }
+
+    /**
+     * Like {@link #getTasks(TaskFilter, String, int)}, but only the columns for {@code fields} are
+     * read. The tasks carry their id and version and have every other unselected property null.
+     */
+    @ReplicaRead
+    public TaskPage getTasks(TaskFilter filter, String cursor, int limit, Set<TaskField> fields) {
+        checkPageRequest(filter, limit);
+        long afterId = cursor == null ? 0L : TaskCursor.decode(cursor);
+        return page(taskRepository.findPage(filter, afterId, limit + 1, fields), limit);
+    }
+
+    private static TaskPage page(List<Task> tasks, int limit) {
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null);
+        }
+        List<Task> page = tasks.subList(0, limit);
+        return new TaskPage(page, TaskCursor.encode(page.getLast().getId()));
+    }
+
+    /**
+     * Cheap version tag for {@link #getTasks(TaskFilter, String, int)}, covering the extra row used
+     * to decide whether the page has a next cursor.
+     */
+    @ReplicaRead
+    public String getTasksVersion(TaskFilter filter, String cursor, int limit) {
+        checkPageRequest(filter, limit);
+        long afterId = cursor == null ? 0L : TaskCursor.decode(cursor);
+        return taskRepository.pageVersion(filter, afterId, limit + 1);
+    }
+
+    /**
+     * Ranked full-text search over titles and descriptions. The cursor is the offset of the next
+     * page, so deep pages are capped at {@link #MAX_SEARCH_OFFSET}.
+     */
+    @ReplicaRead
+    public TaskSearchResult searchTasks(String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long offset = cursor == null ? 0L : TaskCursor.decode(cursor);
+        if (offset < 0 || offset > MAX_SEARCH_OFFSET) {
+            throw new IllegalArgumentException("Search results can only be paged up to " + MAX_SEARCH_OFFSET);
+        }
+        TaskSearchIndex.SearchHits hits = taskSearchIndex.search(query, (int) offset, limit);
+        List<Long> ids = Arrays.stream(hits.ids()).boxed().toList();
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        // A task deleted after the index was read is simply left out of the page
+        List<Task> page = ids.stream().map(tasks::get).filter(Objects::nonNull).toList();
+        long nextOffset = offset + limit;
+        String next = nextOffset < hits.total() && nextOffset <= MAX_SEARCH_OFFSET ? TaskCursor.encode(nextOffset) : null;
+        return new TaskSearchResult(page, hits.total(), next);
+    }
+
+    /**
+     * Revision of the latest change. Taken before reading the task list, it is where a client
+     * continues with {@link #getChanges(long, int)} afterwards.
+     */
+    public long getRevision() {
+        return taskChangeFeed.revision();
+    }
+
+    public TaskChanges getChanges(long since, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return taskChangeFeed.changesSince(since, limit);
     }
 
-    public List<Task> getTasks() {
-        return (List<Task>) taskRepository.findAll();
+    public TaskChangeFeed.Subscription subscribeToChanges(Long since, TaskChangeFeed.Listener listener) {
+        return taskChangeFeed.subscribe(since, listener);
+    }
+
+    @ReplicaRead
+    public void exportTasks(Consumer<? super Task> sink) {
+        taskRepository.forEachTask(sink);
     }
 
     public Task createTask(Task task) {
         // TODO Could we validate anything here?
-        return taskRepository.save(task);
+        Task createdTask = taskWriteBatcher.submit(task, taskRepository::save);
+        taskCache.evict(createdTask.getId());
+        eventPublisher.publishEvent(TaskChangedEvent.created(createdTask));
+        return createdTask;
+    }
+
+    /**
+     * Creates all tasks in one transaction so Hibernate can send the inserts as JDBC batches.
+     */
+    @Transactional
+    public List<Task> createTasks(List<Task> tasks) {
+        checkBulkSize(tasks);
+        List<Task> createdTasks = taskRepository.saveAll(tasks);
+        createdTasks.forEach(task -> {
+            taskCache.evict(task.getId());
+            eventPublisher.publishEvent(TaskChangedEvent.created(task));
+        });
+        return createdTasks;
     }
 
     public void deleteTask(Long id) {
-        Task taskToDelete = getTask(id);
-        taskRepository.delete(taskToDelete);
+        Task taskToDelete = getLiveTask(id);
+        try {
+            taskRepository.delete(taskToDelete);
+        } finally {
+            taskCache.evict(id);
+        }
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(taskToDelete));
     }
 
+    /**
+     * Updates the non-null fields of the task. A version on {@code task} is treated as the version
+     * the caller last saw and the update is rejected if the task has moved on since.
+     */
     public Task updateTask(Task task) {
-        Task taskToUpdate = getTask(task.getId());
-        taskToUpdate.setState(task.getState() != null ? task.getState() : taskToUpdate.getState());
-        taskToUpdate.setDescription(task.getDescription() != null ? task.getDescription() : taskToUpdate.getDescription());
-        taskToUpdate.setState(task.getState() != null ? task.getState() : taskToUpdate.getState());
-        taskToUpdate.setTitle(task.getTitle() != null ? task.getTitle() : taskToUpdate.getTitle());
-        taskToUpdate.setDueDate(task.getDueDate() != null ? task.getDueDate() : taskToUpdate.getDueDate());
-        return taskRepository.save(taskToUpdate);
+        if (task.getId() == null) {
+            throw new IllegalArgumentException("Task id must not be null");
+        }
+        TaskChangedEvent change;
+        try {
+            change = taskWriteBatcher.submit(task, changes -> {
+                // Inside a group commit the read bypasses the cache: a cached instance may be behind
+                // the batch, and a managed entity loaded into the cache would expose uncommitted data
+                Task currentTask = taskWriteBatcher.isEnabled()
+                        ? taskRepository.findById(changes.getId()).map(Task::copy)
+                                .orElseThrow(() -> new IllegalArgumentException("Could not find task with id: " + changes.getId()))
+                        : getLiveTask(changes.getId());
+                checkVersion(currentTask, changes.getVersion());
+                // Work on a copy so readers of the cached instance never see a half-applied update
+                Task taskToUpdate = currentTask.copy();
+                applyChanges(taskToUpdate, changes);
+                return TaskChangedEvent.updated(currentTask, taskRepository.save(taskToUpdate));
+            });
+        } finally {
+            taskCache.evict(task.getId());
+        }
+        eventPublisher.publishEvent(change);
+        return change.after();
+    }
+
+    /**
+     * Applies only the fields set on {@code changes} without reading the task first. The task is
+     * only looked up again when nothing was updated, to tell a missing id from a version conflict.
+     * The statement returns the row as it was, and the patched task is derived from it here.
+     */
+    public Task patchTask(Long id, Task changes) {
+        if (id == null) {
+            throw new IllegalArgumentException("Task id must not be null");
+        }
+        Task previousTask;
+        try {
+            previousTask = taskRepository.patch(id, changes).orElseThrow(() -> {
+                if (changes.getVersion() != null && taskRepository.existsById(id)) {
+                    return new OptimisticLockingFailureException("Task " + id + " is no longer at version " + changes.getVersion());
+                }
+                return new IllegalArgumentException("Could not find task with id: " + id);
+            });
+        } finally {
+            taskCache.evict(id);
+        }
+        Task patchedTask = previousTask.copy();
+        applyChanges(patchedTask, changes);
+        patchedTask.setVersion(previousTask.getVersion() + 1);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(previousTask, patchedTask));
+        return patchedTask;
+    }
+
+    /**
+     * Loads all tasks with a single query and lets the dirty check flush the changes as batched
+     * updates when the transaction commits. Nothing is written if any id is missing.
+     */
+    @Transactional
+    public List<Task> updateTasks(List<Task> tasks) {
+        checkBulkSize(tasks);
+        List<Long> ids = tasks.stream().map(Task::getId).toList();
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Every task in a bulk update needs an id");
+        }
+        Map<Long, Task> existing = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Task> previousTasks = new ArrayList<>(tasks.size());
+        List<Task> changedTasks = tasks.stream().map(task -> {
+            Task taskToUpdate = existing.get(task.getId());
+            if (taskToUpdate == null) {
+                throw new IllegalArgumentException("Could not find task with id: " + task.getId());
+            }
+            checkVersion(taskToUpdate, task.getVersion());
+            previousTasks.add(taskToUpdate.copy());
+            applyChanges(taskToUpdate, task);
+            return taskToUpdate;
+        }).toList();
+        // Nothing to do for managed JPA entities, but storage without dirty checking needs the explicit save
+        List<Task> updatedTasks = taskRepository.saveAll(changedTasks);
+        for (int i = 0; i < updatedTasks.size(); i++) {
+            taskCache.evict(updatedTasks.get(i).getId());
+            eventPublisher.publishEvent(TaskChangedEvent.updated(previousTasks.get(i), updatedTasks.get(i)));
+        }
+        return updatedTasks;
     }
 
+    /**
+     * Moves a set of tasks to another state with one UPDATE per {@link #TRANSITION_CHUNK_SIZE} tasks
+     * instead of a read and a write per task. Tasks selected by a filter are walked in id order and
+     * the filter is checked again by the UPDATE, so a task that changed in between is left alone.
+     * Either selector is capped at {@link #MAX_BULK_SIZE} tasks so the whole transition still
+     * commits or rolls back as one without holding locks on an unbounded number of rows.
+     */
+    @Transactional
+    public TaskTransitionResult transitionTasks(TaskTransition transition) {
+        if (transition.to() == null || (transition.ids() == null) == (transition.filter() == null)) {
+            throw new IllegalArgumentException("A transition needs a target state and either ids or a filter");
+        }
+        List<Task> previousTasks = new ArrayList<>();
+        long unchanged = 0;
+        long missing = 0;
+        if (transition.ids() != null) {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(transition.ids()));
+            if (ids.isEmpty() || ids.size() > MAX_BULK_SIZE || ids.contains(null)) {
+                throw new IllegalArgumentException("Transitions by id must name between 1 and " + MAX_BULK_SIZE + " tasks");
+            }
+            for (int from = 0; from < ids.size(); from += TRANSITION_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + TRANSITION_CHUNK_SIZE));
+                long existing = taskRepository.countByIdIn(chunk);
+                List<Task> transitioned = taskRepository.transitionState(chunk, TaskFilter.NONE, transition.to());
+                previousTasks.addAll(transitioned);
+                unchanged += existing - transitioned.size();
+                missing += chunk.size() - existing;
+            }
+        } else {
+            TaskFilter filter = transition.filter();
+            checkPageRequest(filter, TRANSITION_CHUNK_SIZE);
+            // Collect the matching ids before writing anything so an oversized filter is rejected untouched
+            List<Long> ids = new ArrayList<>();
+            List<Task> page;
+            do {
+                page = taskRepository.findPage(filter, ids.isEmpty() ? 0L : ids.getLast(), TRANSITION_CHUNK_SIZE, Set.of(TaskField.ID));
+                page.forEach(task -> ids.add(task.getId()));
+                if (ids.size() > MAX_BULK_SIZE) {
+                    throw new IllegalArgumentException("Transitions by filter may match at most " + MAX_BULK_SIZE + " tasks");
+                }
+            } while (page.size() == TRANSITION_CHUNK_SIZE);
+            for (int from = 0; from < ids.size(); from += TRANSITION_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + TRANSITION_CHUNK_SIZE));
+                List<Task> transitioned = taskRepository.transitionState(chunk, filter, transition.to());
+                previousTasks.addAll(transitioned);
+                unchanged += chunk.size() - transitioned.size();
+            }
+        }
+        for (Task previousTask : previousTasks) {
+            Task transitionedTask = previousTask.copy();
+            transitionedTask.setState(transition.to());
+            transitionedTask.setVersion(previousTask.getVersion() + 1);
+            taskCache.evict(previousTask.getId());
+            eventPublisher.publishEvent(TaskChangedEvent.updated(previousTask, transitionedTask));
+        }
+        return new TaskTransitionResult(previousTasks.size(), unchanged, missing);
+    }
+
+    /**
+     * Reads only the columns for {@code fields} plus id and version, straight from the repository
+     * so a partial task never ends up in the cache.
+     */
+    @ReplicaRead
+    public Task getTask(Long id, Set<TaskField> fields) {
+        if (id == null) {
+            throw new IllegalArgumentException("Task id must not be null");
+        }
+        return taskRepository.findFieldsById(id, fields)
+                .or(() -> taskArchive.get(id))
+                .orElseThrow(() -> new IllegalArgumentException("Could not find task with id: " + id));
+    }
+
+    /**
+     * The task from the live table, or from the archive once it has been archived. Cache misses are
+     * read from the primary, as a row from a lagging replica could stay cached after the write that
+     * evicted it.
+     */
     public Task getTask(Long id) {
-        Task task = taskRepository.findById(id).orElse(null);
+        if (id == null) {
+            throw new IllegalArgumentException("Task id must not be null");
+        }
+        Task task = findLiveTask(id);
+        if (task == null) {
+            task = taskArchive.get(id).orElseThrow(() -> new IllegalArgumentException("Could not find task with id: " + id));
+        }
+        return task;
+    }
+
+    /**
+     * Keyset page of archived tasks in id order. Archived tasks are read-only.
+     */
+    public TaskPage getArchivedTasks(String cursor, int limit) {
+        checkPageRequest(TaskFilter.NONE, limit);
+        long afterId = cursor == null ? 0L : TaskCursor.decode(cursor);
+        return page(taskArchive.findPage(afterId, limit + 1), limit);
+    }
+
+    // Writes only ever see live tasks, so an archived task is never written back into the table
+    private Task getLiveTask(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Task id must not be null");
+        }
+        Task task = findLiveTask(id);
         if (task == null) {
             throw new IllegalArgumentException("Could not find task with id: " + id);
         }
         return task;
     }
 
+    private Task findLiveTask(Long id) {
+        return taskCache.get(id, key -> taskRepository.findById(key).orElse(null));
+    }
+
+    public TaskStats getStats() {
+        return taskCounters.stats();
+    }
 
+    /**
+     * Compares the counters with a full recount. Writes committed between the two reads can make
+     * them differ for a moment, so a mismatch is worth a second look before acting on it.
+     */
+    public TaskStatsCheck verifyStats() {
+        TaskStats counted = taskCounters.stats();
+        TaskStats recounted = taskCounters.recount();
+        return new TaskStatsCheck(counted, recounted, counted.equals(recounted));
+    }
+
+    public TaskCacheStats getCacheStats() {
+        return taskCache.stats();
+    }
+
+    private static void applyChanges(Task taskToUpdate, Task task) {
+        taskToUpdate.setState(task.getState() != null ? task.getState() : taskToUpdate.getState());
+        taskToUpdate.setDescription(task.getDescription() != null ? task.getDescription() : taskToUpdate.getDescription());
+        taskToUpdate.setTitle(task.getTitle() != null ? task.getTitle() : taskToUpdate.getTitle());
+        taskToUpdate.setDueDate(task.getDueDate() != null ? task.getDueDate() : taskToUpdate.getDueDate());
+    }
+
+    private static void checkVersion(Task currentTask, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentTask.getVersion())) {
+            throw new OptimisticLockingFailureException(
+                    "Task " + currentTask.getId() + " is at version " + currentTask.getVersion() + ", expected " + expectedVersion);
+        }
+    }
+
+    private static void checkPageRequest(TaskFilter filter, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (filter.dueFrom() != null && filter.dueTo() != null && filter.dueFrom().isAfter(filter.dueTo())) {
+            throw new IllegalArgumentException("dueFrom must not be after dueTo");
+        }
+    }
+
+    private static void checkBulkSize(List<Task> tasks) {
+        if (tasks == null || tasks.isEmpty() || tasks.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Bulk requests must contain between 1 and " + MAX_BULK_SIZE + " tasks");
+        }
+    }
 }
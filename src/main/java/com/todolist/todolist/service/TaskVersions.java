@@ -0,0 +1,94 @@
+package com.todolist.todolist.service;
+
+/**
+ * Task versions a derived view has applied, so it can drop {@link TaskChangedEvent}s that arrive
+ * out of order. Events are published after commit on the committing thread, so two writes to the
+ * same task can reach a listener in either order.
+ * <p>
+ * Versions of tasks the view holds are kept exactly. Once a view lets go of a task, because it was
+ * deleted or no longer concerns the view, its last version moves into a window of the most recently
+ * retired tasks. A late event only trails the change that overtook it by the few commits racing with
+ * it, so the window is bounded instead of remembering every id ever issued. Not thread safe; the
+ * view calls it under its own lock.
+ */
+final class TaskVersions {
+    static final int RECENTLY_RETIRED = 4096;
+
+    private final LongLongMap held = new LongLongMap();
+    private final LongLongMap retired = new LongLongMap();
+    private final long[] retiredOrder;
+    private int retiredCount;
+    private int oldestRetired;
+
+    TaskVersions() {
+        this(RECENTLY_RETIRED);
+    }
+
+    TaskVersions(int retiredCapacity) {
+        this.retiredOrder = new long[retiredCapacity];
+    }
+
+    /**
+     * Records {@code version} as held and returns true, or returns false if it is not newer than
+     * what was already applied. Tasks that never went through storage carry no version and always apply.
+     */
+    boolean advance(long id, Long version) {
+        long applied = held.get(id);
+        if (applied == LongLongMap.MISSING) {
+            applied = retired.get(id);
+        }
+        if (applied != LongLongMap.MISSING && (version == null || version <= applied)) {
+            return false;
+        }
+        if (version != null) {
+            held.put(id, version);
+            retired.remove(id);
+        }
+        return true;
+    }
+
+    /**
+     * The view no longer holds the task, remember its last version for a while.
+     */
+    void retire(long id) {
+        long version = held.remove(id);
+        if (version != LongLongMap.MISSING) {
+            addRetired(id, version);
+        }
+    }
+
+    /**
+     * Ids are never reused, so no event for a deleted task may apply while it is remembered.
+     */
+    void delete(long id) {
+        held.remove(id);
+        addRetired(id, Long.MAX_VALUE);
+    }
+
+    int held() {
+        return held.size();
+    }
+
+    int retired() {
+        return retired.size();
+    }
+
+    private void addRetired(long id, long version) {
+        long known = retired.get(id);
+        if (known != LongLongMap.MISSING) {
+            retired.put(id, Math.max(known, version));
+            return;
+        }
+        if (retiredOrder.length == 0) {
+            return;
+        }
+        if (retiredCount == retiredOrder.length) {
+            retired.remove(retiredOrder[oldestRetired]);
+            retiredOrder[oldestRetired] = id;
+            oldestRetired = (oldestRetired + 1) % retiredOrder.length;
+        } else {
+            retiredOrder[(oldestRetired + retiredCount++) % retiredOrder.length] = id;
+        }
+        retired.put(id, version);
+    }
+}
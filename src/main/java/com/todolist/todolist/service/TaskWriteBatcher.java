@@ -0,0 +1,223 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.Task;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Group commit for single task writes. With {@code todolist.group-commit.enabled} set, writes from
+ * concurrent requests are queued and one thread runs them together in a single transaction once
+ * {@code max-batch-size} writes are waiting or the first of them has waited {@code max-delay-micros},
+ * so many requests share one commit. Each caller still blocks until its own write has committed and
+ * gets back its own result. Writes to the same task are never committed together, so optimistic
+ * version checks see each other's results.
+ * <p>
+ * If anything in a batch fails, the batch is rolled back and every write in it is retried in its
+ * own transaction, so a bad write only fails its own request. Every attempt works on a fresh copy
+ * of the task for that reason. Callers wait at most {@code enqueue-timeout-ms} for room in the
+ * bounded queue and are rejected after that, which pushes back on clients instead of letting the
+ * queue grow without limit. They wait at most {@code commit-timeout-ms} for the commit itself; a
+ * write that has not started by then is dropped and the caller is rejected the same way. One that
+ * is already in a transaction may still commit.
+ * <p>
+ * When group commit is off, writes run directly on the calling thread as before.
+ */
+@Slf4j
+@Component
+public class TaskWriteBatcher {
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long enqueueTimeoutMillis;
+    private final long commitTimeoutMillis;
+    private final BlockingQueue<PendingWrite<?>> queue;
+    private final Thread flusher;
+
+    public TaskWriteBatcher(PlatformTransactionManager transactionManager,
+                            @Value("${todolist.group-commit.enabled:false}") boolean enabled,
+                            @Value("${todolist.group-commit.max-batch-size:256}") int maxBatchSize,
+                            @Value("${todolist.group-commit.max-delay-micros:500}") long maxDelayMicros,
+                            @Value("${todolist.group-commit.queue-capacity:10000}") int queueCapacity,
+                            @Value("${todolist.group-commit.enqueue-timeout-ms:1000}") long enqueueTimeoutMillis,
+                            @Value("${todolist.group-commit.commit-timeout-ms:10000}") long commitTimeoutMillis,
+                            @Value("${todolist.storage.engine:jpa}") String storageEngine) {
+        if (enabled && !storageEngine.equals("jpa")) {
+            // The fallback relies on rolling the whole batch back, which only the database can do
+            throw new IllegalStateException("Group commit needs the jpa storage engine, not " + storageEngine);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+        this.commitTimeoutMillis = commitTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flusher = enabled ? Thread.ofPlatform().name("task-group-commit").daemon().start(this::flushLoop) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs {@code write} on a copy of {@code task} as part of the next group commit and returns its
+     * result once committed. Throws {@link RejectedExecutionException} if the queue stays full or
+     * the commit takes too long.
+     */
+    public <T> T submit(Task task, Function<Task, T> write) {
+        if (!enabled) {
+            return write.apply(task);
+        }
+        PendingWrite<T> pending = new PendingWrite<>(task, write);
+        try {
+            if (!queue.offer(pending, enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Too many writes are queued, please try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing a write", e);
+        }
+        try {
+            return pending.result.get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Dropped from its batch unless the flusher has already started on it
+            pending.result.completeExceptionally(new RejectedExecutionException("Timed out waiting for the write to commit"));
+            throw new RejectedExecutionException("Timed out waiting for the write to commit, please try again later", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result.completeExceptionally(new RejectedExecutionException("Interrupted while waiting for a write"));
+            throw new RejectedExecutionException("Interrupted while waiting for a write", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                try {
+                    flush(batch);
+                } catch (Throwable e) {
+                    // This is the only flusher, so whatever a batch throws must not stop it
+                    log.error("Group commit of {} writes failed", batch.size(), e);
+                    batch.forEach(pending -> pending.result.completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queue.drainTo(batch);
+        batch.forEach(pending -> pending.result.completeExceptionally(new RejectedExecutionException("Shutting down")));
+    }
+
+    /**
+     * Commits the batch in rounds that touch each task at most once. A second write to the same task
+     * waits for the round holding the first one to commit, so it is checked against that result
+     * instead of against the same version as the first.
+     */
+    private void flush(List<PendingWrite<?>> batch) {
+        List<PendingWrite<?>> remaining = batch;
+        while (!remaining.isEmpty()) {
+            Set<Long> ids = new HashSet<>();
+            List<PendingWrite<?>> round = new ArrayList<>(remaining.size());
+            List<PendingWrite<?>> later = new ArrayList<>();
+            for (PendingWrite<?> pending : remaining) {
+                Long id = pending.task.getId();
+                (id == null || ids.add(id) ? round : later).add(pending);
+            }
+            commit(round);
+            remaining = later;
+        }
+    }
+
+    private void commit(List<PendingWrite<?>> round) {
+        // Callers that gave up waiting are not written at all
+        List<PendingWrite<?>> batch = round.stream().filter(pending -> !pending.result.isDone()).toList();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(PendingWrite::perform));
+            batch.forEach(PendingWrite::succeed);
+        } catch (RuntimeException batchFailure) {
+            log.debug("Group commit of {} writes failed, retrying them one by one", batch.size(), batchFailure);
+            for (PendingWrite<?> pending : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> pending.perform());
+                    pending.succeed();
+                } catch (RuntimeException e) {
+                    pending.result.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private static final class PendingWrite<T> {
+        private final Task task;
+        private final Function<Task, T> write;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+
+        private PendingWrite(Task task, Function<Task, T> write) {
+            this.task = task;
+            this.write = write;
+        }
+
+        void perform() {
+            value = write.apply(task.copy());
+        }
+
+        void succeed() {
+            result.complete(value);
+        }
+    }
+}
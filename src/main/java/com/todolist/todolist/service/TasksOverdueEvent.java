@@ -0,0 +1,11 @@
+package com.todolist.todolist.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by {@link TaskDueDateScheduler} once {@code dueDate} has passed for open tasks. The
+ * tasks of one due date are split over several events when there are more than fit in one batch.
+ */
+public record TasksOverdueEvent(LocalDate dueDate, List<Long> ids) {
+}
@@ -0,0 +1,174 @@
+package com.todolist.todolist.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+    private static final long TARGET_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final int CLIENTS = 64;
+    private static final int WORKERS = 2;
+    private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MEASURE_FROM_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long END_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    void shouldRejectOverTheLimit() {
+        // given
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, TARGET_NANOS, 0.5);
+        // when, then
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldGrowWhileSaturatedAndFast() {
+        // given
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 3, TARGET_NANOS, 0.5);
+        // when
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(0, TARGET_NANOS / 2, false);
+            limiter.release(0, TARGET_NANOS / 2, false);
+        }
+        // then
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldNotGrowWhileIdle() {
+        // given
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 100, TARGET_NANOS, 0.5);
+        // when
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(0, TARGET_NANOS / 2, false);
+        }
+        // then
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void shouldShrinkWhenSlowOrFailingButNotBelowMinimum() {
+        // given
+        AdaptiveLimiter limiter = new AdaptiveLimiter(8, 2, 10, TARGET_NANOS, 0.5);
+        // when
+        limiter.tryAcquire();
+        limiter.release(0, TARGET_NANOS * 2, false);
+        int afterSlow = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.release(TARGET_NANOS * 3, TARGET_NANOS * 3, true);
+        int afterFailure = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.release(TARGET_NANOS * 4, TARGET_NANOS * 4, true);
+        // then
+        assertEquals(4, afterSlow);
+        assertEquals(2, afterFailure);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void shouldBackOffOncePerRoundTrip() {
+        // given
+        AdaptiveLimiter limiter = new AdaptiveLimiter(8, 1, 10, TARGET_NANOS, 0.5);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        // when a burst of requests admitted together all come back slow
+        for (int i = 0; i < 3; i++) {
+            limiter.release(0, TARGET_NANOS * 2 + i, false);
+        }
+        int afterBurst = limiter.getLimit();
+        // and a request admitted after that backoff is slow as well
+        limiter.release(TARGET_NANOS * 3, TARGET_NANOS * 5, false);
+        // then
+        assertEquals(4, afterBurst);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void shouldKeepP99BoundedUnderOverload() {
+        // given far more clients than two workers can serve, 5 ms per request
+        AdaptiveLimiter unlimited = new AdaptiveLimiter(CLIENTS, CLIENTS, CLIENTS, TARGET_NANOS, 0.9);
+        AdaptiveLimiter adaptive = new AdaptiveLimiter(20, 2, 200, TARGET_NANOS, 0.9);
+        // when
+        Run withoutLimit = overload(unlimited);
+        Run withLimit = overload(adaptive);
+        // then queueing for the workers grows with the clients, the limit keeps it near the target
+        assertTrue(withoutLimit.p99Nanos() > TimeUnit.MILLISECONDS.toNanos(100), "p99 without limit " + withoutLimit);
+        assertTrue(withLimit.p99Nanos() < TimeUnit.MILLISECONDS.toNanos(40), "p99 with limit " + withLimit);
+        assertTrue(withLimit.rejected() > 0);
+        assertTrue(adaptive.getLimit() < 20);
+    }
+
+    /**
+     * Simulates closed-loop clients against a fixed number of workers on a virtual clock, so the
+     * outcome depends only on the limiter and not on how busy the machine running the test is.
+     * Rejected clients retry a millisecond later; admitted requests wait for a free worker.
+     */
+    private static Run overload(AdaptiveLimiter limiter) {
+        PriorityQueue<Event> events = new PriorityQueue<>(Comparator.comparingLong(Event::timeNanos).thenComparingLong(Event::sequence));
+        ArrayDeque<Event> waiting = new ArrayDeque<>();
+        List<Long> latencies = new ArrayList<>();
+        long sequence = 0;
+        long rejected = 0;
+        int busyWorkers = 0;
+        for (int client = 0; client < CLIENTS; client++) {
+            events.add(new Event(0, sequence++, Event.NOT_STARTED));
+        }
+        while (!events.isEmpty() && events.peek().timeNanos() < END_NANOS) {
+            Event event = events.poll();
+            long now = event.timeNanos();
+            if (event.startNanos() == Event.NOT_STARTED) {
+                if (!limiter.tryAcquire()) {
+                    rejected++;
+                    events.add(new Event(now + RETRY_NANOS, sequence++, Event.NOT_STARTED));
+                } else if (busyWorkers < WORKERS) {
+                    busyWorkers++;
+                    events.add(new Event(now + SERVICE_NANOS, sequence++, now));
+                } else {
+                    waiting.add(new Event(now, sequence++, now));
+                }
+                continue;
+            }
+            limiter.release(event.startNanos(), now, false);
+            // Latencies are only kept once the limit has had time to settle
+            if (event.startNanos() >= MEASURE_FROM_NANOS) {
+                latencies.add(now - event.startNanos());
+            }
+            Event next = waiting.poll();
+            if (next != null) {
+                events.add(new Event(now + SERVICE_NANOS, sequence++, next.startNanos()));
+            } else {
+                busyWorkers--;
+            }
+            events.add(new Event(now, sequence++, Event.NOT_STARTED));
+        }
+        List<Long> sorted = latencies.stream().sorted().toList();
+        return new Run(sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1), sorted.size(), rejected);
+    }
+
+    /**
+     * A client sending its next request, or with {@code startNanos} set, a request finishing.
+     */
+    private record Event(long timeNanos, long sequence, long startNanos) {
+        static final long NOT_STARTED = -1;
+    }
+
+    private record Run(long p99Nanos, int requests, long rejected) {
+    }
+}
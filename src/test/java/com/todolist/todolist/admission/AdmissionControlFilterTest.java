@@ -0,0 +1,108 @@
+package com.todolist.todolist.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionControlFilterTest {
+    private MeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(meterRegistry, true, Set.of("/tasks/export"), Set.of("/tasks/search"), 1, 1, 1, 50, 1000, 0.9);
+    }
+
+    @Test
+    void shouldRejectWith503WhenOverTheLimit() throws Exception {
+        // given
+        List<MockHttpServletResponse> nested = new ArrayList<>();
+        // when a second read arrives while the only permitted one is still running
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/tasks"), first,
+                (request, response) -> nested.add(perform("GET", "/tasks/1")));
+        // then
+        MockHttpServletResponse second = nested.getFirst();
+        assertEquals(200, first.getStatus());
+        assertEquals(503, second.getStatus());
+        assertEquals("1", second.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("task.admission.rejected").tag("type", "read").counter().count());
+        assertEquals(0, filter.reads().getInFlight());
+    }
+
+    @Test
+    void shouldLimitReadsAndWritesSeparately() throws Exception {
+        // given
+        List<MockHttpServletResponse> nested = new ArrayList<>();
+        // when a write arrives while a read holds the read limit
+        filter.doFilter(new MockHttpServletRequest("GET", "/tasks"), new MockHttpServletResponse(),
+                (request, response) -> nested.add(perform("POST", "/tasks/create")));
+        // then
+        assertEquals(200, nested.getFirst().getStatus());
+        assertEquals(0.0, meterRegistry.get("task.admission.rejected").tag("type", "write").counter().count());
+    }
+
+    @Test
+    void shouldLimitExpensiveEndpointsSeparately() throws Exception {
+        // given
+        List<MockHttpServletResponse> nested = new ArrayList<>();
+        // when a search arrives while a read holds the read limit, and a read while a search holds the bulk limit
+        filter.doFilter(new MockHttpServletRequest("GET", "/tasks"), new MockHttpServletResponse(),
+                (request, response) -> nested.add(perform("GET", "/tasks/search")));
+        filter.doFilter(new MockHttpServletRequest("GET", "/tasks/search"), new MockHttpServletResponse(),
+                (request, response) -> nested.add(perform("GET", "/tasks/1")));
+        // then
+        assertEquals(200, nested.get(0).getStatus());
+        assertEquals(200, nested.get(1).getStatus());
+        assertEquals(0, filter.bulk().getInFlight());
+    }
+
+    @Test
+    void shouldNotLimitExemptOrOtherPaths() throws Exception {
+        // given
+        List<MockHttpServletResponse> nested = new ArrayList<>();
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/tasks"), new MockHttpServletResponse(), (request, response) -> {
+            nested.add(perform("GET", "/tasks/export"));
+            nested.add(perform("GET", "/actuator/health"));
+        });
+        // then
+        assertEquals(200, nested.get(0).getStatus());
+        assertEquals(200, nested.get(1).getStatus());
+    }
+
+    @Test
+    void shouldPublishLimitAndInFlight() throws Exception {
+        // given
+        List<Double> inFlight = new ArrayList<>();
+        // when
+        filter.doFilter(new MockHttpServletRequest("PUT", "/tasks/update"), new MockHttpServletResponse(),
+                (request, response) -> inFlight.add(meterRegistry.get("task.admission.in.flight").tag("type", "write").gauge().value()));
+        // then
+        assertEquals(1.0, inFlight.getFirst());
+        assertEquals(0.0, meterRegistry.get("task.admission.in.flight").tag("type", "write").gauge().value());
+        assertEquals(1.0, meterRegistry.get("task.admission.limit").tag("type", "write").gauge().value());
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest(method, uri), response, (request, ignored) -> {
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
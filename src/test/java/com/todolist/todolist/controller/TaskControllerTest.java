@@ -1,7 +1,11 @@
 package com.todolist.todolist.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.todolist.todolist.dto.State;
 import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskFilter;
+import com.todolist.todolist.dto.TaskPage;
+import com.todolist.todolist.dto.TaskSearchResult;
 import com.todolist.todolist.service.TaskService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +14,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -20,6 +27,8 @@ import static org.mockito.Mockito.*;
 class TaskControllerTest {
     private TaskController taskController;
     private Task expectedTask;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
 
     @Mock
     private TaskService taskService;
@@ -27,10 +36,13 @@ class TaskControllerTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        taskController = new TaskController(taskService);
+        taskController = new TaskController(taskService, new ObjectMapper());
         expectedTask = new Task();
         expectedTask.setId(1L);
         expectedTask.setDescription("I am a task");
+        expectedTask.setVersion(0L);
+        request = new MockHttpServletRequest("GET", "/tasks");
+        response = new MockHttpServletResponse();
     }
 
     @Test
@@ -54,15 +66,44 @@ class TaskControllerTest {
     void shouldGetTaskSuccessfully() {
        // when
         when(taskService.getTask(1L)).thenReturn(expectedTask);
-        ResponseEntity<Task> response = taskController.getTask(1L);
+        ResponseEntity<Task> response = taskController.getTask(1L, new ServletWebRequest(request, this.response));
         Task actualTask = response.getBody();
 
         // then
         verify(taskService).getTask(1L);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"0\"");
         assertThat(actualTask).isEqualTo(expectedTask);
     }
 
+    @Test
+    void shouldReturnNotModifiedWhenETagMatches() {
+        // given
+        request.addHeader("If-None-Match", "\"0\"");
+        when(taskService.getTask(1L)).thenReturn(expectedTask);
+
+        // when
+        ResponseEntity<Task> actualResponse = taskController.getTask(1L, new ServletWebRequest(request, response));
+
+        // then
+        assertThat(actualResponse).isNull();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    @Test
+    void shouldNotLoadPageWhenListETagMatches() {
+        // given
+        request.addHeader("If-None-Match", "\"2-0-2\"");
+        when(taskService.getTasksVersion(TaskFilter.NONE, null, 100)).thenReturn("2-0-2");
+
+        // when
+        ResponseEntity<List<Task>> actualResponse = taskController.getTasks(TaskFilter.NONE, null, 100, false, new ServletWebRequest(request, response));
+
+        // then
+        assertThat(actualResponse).isNull();
+        verify(taskService, never()).getTasks(TaskFilter.NONE, null, 100);
+    }
+
     @Test
     void shouldGetMultipleTasksSuccessfully() {
         // given
@@ -72,17 +113,42 @@ class TaskControllerTest {
         task2.setId(2L);
 
         // when
-        when(taskService.getTasks()).thenReturn(List.of(task1, task2));
-        ResponseEntity<List<Task>> response = taskController.getTasks();
+        when(taskService.getTasksVersion(TaskFilter.NONE, null, 100)).thenReturn("2-0-2");
+        when(taskService.getTasks(TaskFilter.NONE, null, 100)).thenReturn(new TaskPage(List.of(task1, task2), null));
+        ResponseEntity<List<Task>> response = taskController.getTasks(TaskFilter.NONE, null, 100, false, new ServletWebRequest(request, this.response));
 
         Task actualTask1 = response.getBody().getFirst();
         Task actualTask2 = response.getBody().getLast();
 
         // then
-        verify(taskService).getTasks();
+        verify(taskService).getTasks(TaskFilter.NONE, null, 100);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(actualTask1).isEqualTo(task1);
         assertThat(actualTask2).isEqualTo(task2);
+        assertThat(response.getHeaders().containsKey(TaskController.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void shouldExposeNextCursorHeader() {
+        // when
+        when(taskService.getTasksVersion(TaskFilter.NONE, null, 1)).thenReturn("2-0-2");
+        when(taskService.getTasks(TaskFilter.NONE, null, 1)).thenReturn(new TaskPage(List.of(expectedTask), "next"));
+        ResponseEntity<List<Task>> response = taskController.getTasks(TaskFilter.NONE, null, 1, false, new ServletWebRequest(request, this.response));
+
+        // then
+        assertThat(response.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER)).isEqualTo("next");
+    }
+
+    @Test
+    void shouldExposeSearchTotalAndNextCursor() {
+        // when
+        when(taskService.searchTasks("task", null, 1)).thenReturn(new TaskSearchResult(List.of(expectedTask), 5, "next"));
+        ResponseEntity<List<Task>> response = taskController.searchTasks("task", null, 1);
+
+        // then
+        assertThat(response.getBody()).isEqualTo(List.of(expectedTask));
+        assertThat(response.getHeaders().getFirst(TaskController.TOTAL_COUNT_HEADER)).isEqualTo("5");
+        assertThat(response.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER)).isEqualTo("next");
     }
 
     @Test
@@ -91,7 +157,7 @@ class TaskControllerTest {
         when(taskService.updateTask(expectedTask)).then(AdditionalAnswers.returnsFirstArg());
 
         // when
-        ResponseEntity<Task> response = taskController.updateTask(expectedTask);
+        ResponseEntity<Task> response = taskController.updateTask(expectedTask, null);
         Task actualTask = response.getBody();
 
         // then
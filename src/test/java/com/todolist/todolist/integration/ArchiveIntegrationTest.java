@@ -0,0 +1,70 @@
+package com.todolist.todolist.integration;
+
+import com.todolist.todolist.service.TaskArchiver;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todolist.archive.enabled=true",
+        "todolist.archive.directory=build/test-archive/${random.uuid}",
+        "todolist.archive.interval-seconds=3600"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ArchiveIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TaskArchiver taskArchiver;
+
+    @Test
+    public void shouldArchiveOldCompletedTasksAndStillServeThem() throws Exception {
+        // given
+        for (String dueDate : List.of("2000-01-01", "2000-01-02", "2999-01-01")) {
+            mockMvc.perform(post("/tasks/create")
+                            .content("{\"title\":\"Title\",\"description\":\"Old news\",\"dueDate\":\"" + dueDate + "\"}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(post("/tasks/transition").content("{\"ids\":[1,3],\"to\":\"COMPLETED\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks/1")).andExpect(status().isOk());
+        // when
+        int archived = taskArchiver.archive();
+        // then
+        JSONArray live = new JSONArray(mockMvc.perform(get("/tasks")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        JSONArray archive = new JSONArray(mockMvc.perform(get("/tasks/archive")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        MvcResult task = mockMvc.perform(get("/tasks/1")).andExpect(status().isOk()).andReturn();
+        MvcResult check = mockMvc.perform(get("/tasks/stats/verify")).andExpect(status().isOk()).andReturn();
+        assertAll(() -> {
+            assertThat(archived).isEqualTo(1);
+            assertThat(live.length()).isEqualTo(2);
+            assertThat(archive.length()).isEqualTo(1);
+            assertThat(archive.getJSONObject(0).getLong("id")).isEqualTo(1);
+            JSONObject archivedTask = new JSONObject(task.getResponse().getContentAsString());
+            assertThat(archivedTask.getString("description")).isEqualTo("Old news");
+            assertThat(archivedTask.getString("state")).isEqualTo("COMPLETED");
+            assertThat(new JSONObject(check.getResponse().getContentAsString()).getBoolean("consistent")).isTrue();
+        });
+        // Archived tasks are read-only
+        mockMvc.perform(put("/tasks/update").content("{\"id\":1,\"title\":\"Back to life\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is4xxClientError());
+    }
+}
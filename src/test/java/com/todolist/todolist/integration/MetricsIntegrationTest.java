@@ -0,0 +1,61 @@
+package com.todolist.todolist.integration;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "todolist.metrics.statement-budget=0",
+        "todolist.metrics.hibernate-statistics=true"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class MetricsIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void shouldRecordStatementsAndLoadsPerEndpoint() throws Exception {
+        // given
+        Task task = new Task();
+        task.setTitle("Title");
+        task.setDueDate(LocalDate.of(2025, 9, 13));
+        task.setState(State.READY);
+        taskRepository.save(task);
+        // when
+        mockMvc.perform(get("/tasks/" + task.getId())).andExpect(status().isOk());
+        // then
+        assertThat(meterRegistry.get("task.request.statements").tag("uri", "/tasks/{id}").summary().totalAmount())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("task.request.entity.loads").tag("uri", "/tasks/{id}").summary().totalAmount())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("task.request.statement.budget.exceeded").tag("uri", "/tasks/{id}").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("task.service").tag("method", "getTask").timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldExposeMetricsEndpoint() throws Exception {
+        // given, when, then
+        mockMvc.perform(get("/actuator/metrics/hikaricp.connections.usage")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/cache.gets")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/hibernate.sessions.open")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,150 @@
+package com.todolist.todolist.integration;
+
+import com.todolist.todolist.controller.TaskController;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskFilter;
+import com.todolist.todolist.service.TaskService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.json.JSONArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against two in-memory H2 databases. Instead of real replication, {@link #replicate()} copies
+ * the primary onto the replica whenever a test wants them in sync, so the replica lags until then.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "todolist.datasource.replica.url=jdbc:h2:mem:routing-replica",
+        "todolist.datasource.replica.health-check-seconds=3600"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ReplicaIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    public void setup() {
+        replicate();
+    }
+
+    @AfterEach
+    public void teardown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void listsShouldBeReadFromReplicaAndSingleTasksFromPrimary() throws Exception {
+        // given
+        createTask();
+        // when
+        JSONArray beforeReplication = listTasks();
+        mockMvc.perform(get("/tasks/1")).andExpect(status().isOk());
+        replicate();
+        JSONArray afterReplication = listTasks();
+        // then
+        assertAll(() -> {
+            assertThat(beforeReplication.length()).isZero();
+            assertThat(afterReplication.length()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    public void listsShouldOnlyCarryRevisionWhenReadFromPrimary() throws Exception {
+        // given
+        createTask();
+        // when
+        MvcResult fromReplica = mockMvc.perform(get("/tasks")).andExpect(status().isOk()).andReturn();
+        MvcResult consistent = mockMvc.perform(get("/tasks").param("consistent", "true")).andExpect(status().isOk()).andReturn();
+        // then
+        assertAll(() -> {
+            assertThat(fromReplica.getResponse().getHeader(TaskController.REVISION_HEADER)).isNull();
+            assertThat(consistent.getResponse().getHeader(TaskController.REVISION_HEADER)).isNotNull();
+            assertThat(new JSONArray(consistent.getResponse().getContentAsString()).length()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    public void readsShouldSeeWritesFromTheSameRequest() {
+        // given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Task task = new Task();
+        task.setTitle("Title");
+        task.setDueDate(LocalDate.of(2025, 9, 13));
+        taskService.createTask(task);
+        // when
+        List<Task> sameRequest = taskService.getTasks(TaskFilter.NONE, null, 10).tasks();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        List<Task> nextRequest = taskService.getTasks(TaskFilter.NONE, null, 10).tasks();
+        // then
+        assertAll(() -> {
+            assertThat(sameRequest.size()).isEqualTo(1);
+            assertThat(nextRequest.size()).isZero();
+        });
+    }
+
+    @Test
+    public void readsShouldFallBackToPrimaryWhenReplicaIsDown() throws Exception {
+        // given
+        createTask();
+        replicaDataSource.unwrap(HikariDataSource.class).close();
+        // when
+        JSONArray tasks = listTasks();
+        // then
+        assertThat(tasks.length()).isEqualTo(1);
+    }
+
+    private void createTask() throws Exception {
+        mockMvc.perform(post("/tasks/create")
+                        .content("{\"title\":\"Title\",\"dueDate\":\"2025-09-13\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    private JSONArray listTasks() throws Exception {
+        return new JSONArray(mockMvc.perform(get("/tasks")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    /**
+     * Stand-in for replication: replaces the replica with a script of the primary's current state.
+     */
+    private void replicate() {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        script.stream().filter(statement -> !statement.startsWith("--")).forEach(replica::execute);
+    }
+}
@@ -1,7 +1,9 @@
 package com.todolist.todolist.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.todolist.todolist.dto.State;
 import com.todolist.todolist.dto.Task;
 import com.todolist.todolist.repository.TaskRepository;
@@ -19,10 +21,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -96,6 +101,151 @@ public class TaskControllerIntegrationTest {
         });
     }
 
+    @Test
+    public void getTasksShouldPageWithCursor() throws Exception {
+        // given
+        addSampleData("I am one");
+        addSampleData("I am two");
+        addSampleData("I am three");
+        // when
+        MvcResult firstPage = mockMvc.perform(get("/tasks").param("limit", "2"))
+                .andExpect(status().isOk()).andReturn();
+        String next = firstPage.getResponse().getHeader("X-Next-Cursor");
+        MvcResult secondPage = mockMvc.perform(get("/tasks").param("limit", "2").param("cursor", next))
+                .andExpect(status().isOk()).andReturn();
+        // then
+        JSONArray firstTasks = new JSONArray(firstPage.getResponse().getContentAsString());
+        JSONArray secondTasks = new JSONArray(secondPage.getResponse().getContentAsString());
+        assertAll(() -> {
+            assertThat(firstTasks.length()).isEqualTo(2);
+            assertThat(next).isNotNull();
+            assertThat(secondTasks.length()).isEqualTo(1);
+            assertThat(secondTasks.getJSONObject(0).getString("description")).isEqualTo("I am three");
+            assertThat(secondPage.getResponse().getHeader("X-Next-Cursor")).isNull();
+        });
+    }
+
+    @Test
+    public void getTasksShouldFilterByStateAndDueDate() throws Exception {
+        // given
+        addSampleData("Ready this week");
+        addSampleData("Doing this week", State.DOING, LocalDate.of(2025, 9, 10));
+        addSampleData("Doing next month", State.DOING, LocalDate.of(2025, 10, 10));
+        // when
+        MvcResult mvcResult = mockMvc.perform(get("/tasks")
+                        .param("state", "DOING")
+                        .param("dueFrom", "2025-09-08")
+                        .param("dueTo", "2025-09-14"))
+                .andExpect(status().isOk()).andReturn();
+        // then
+        JSONArray jsonArray = new JSONArray(mvcResult.getResponse().getContentAsString());
+        assertAll(() -> {
+            assertThat(jsonArray.length()).isEqualTo(1);
+            assertThat(jsonArray.getJSONObject(0).getString("description")).isEqualTo("Doing this week");
+        });
+    }
+
+    @Test
+    public void getTasksShouldReturnOnlySelectedFields() throws Exception {
+        // given
+        addSampleData();
+        addSampleData();
+        // when
+        MvcResult list = mockMvc.perform(get("/tasks").param("fields", "id,title,state"))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult single = mockMvc.perform(get("/tasks/2").param("fields", "description"))
+                .andExpect(status().isOk()).andReturn();
+        // then
+        JSONArray tasks = new JSONArray(list.getResponse().getContentAsString());
+        JSONObject task = new JSONObject(single.getResponse().getContentAsString());
+        assertAll(() -> {
+            assertThat(tasks.length()).isEqualTo(2);
+            assertThat(tasks.getJSONObject(0).length()).isEqualTo(3);
+            assertThat(tasks.getJSONObject(0).getLong("id")).isEqualTo(1);
+            assertThat(tasks.getJSONObject(0).has("description")).isFalse();
+            assertThat(tasks.getJSONObject(1).getString("state")).isEqualTo("READY");
+            assertThat(task.length()).isEqualTo(1);
+            assertThat(task.has("description")).isTrue();
+            assertThat(single.getResponse().getHeader("ETag")).isNotNull();
+        });
+    }
+
+    @Test
+    public void getTasksShouldReturnCborWhenAskedFor() throws Exception {
+        // given
+        addSampleData();
+        // when
+        MvcResult cbor = mockMvc.perform(get("/tasks").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult json = mockMvc.perform(get("/tasks")).andExpect(status().isOk()).andReturn();
+        // then
+        JsonNode tasks = new CBORMapper().readTree(cbor.getResponse().getContentAsByteArray());
+        assertAll(() -> {
+            assertThat(cbor.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+            assertThat(tasks.size()).isEqualTo(1);
+            assertThat(tasks.get(0).get("title").asText()).isEqualTo("Title");
+            assertThat(tasks.get(0).get("dueDate").asText()).isEqualTo("2025-09-13");
+            assertThat(json.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        });
+    }
+
+    @Test
+    public void createTaskShouldAcceptCbor() throws Exception {
+        // given
+        byte[] body = new CBORMapper().writeValueAsBytes(Map.of("title", "Binary", "dueDate", "2025-09-14"));
+        // when
+        MvcResult mvcResult = mockMvc.perform(post("/tasks/create").content(body)
+                        .contentType(MediaType.APPLICATION_CBOR).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk()).andReturn();
+        // then
+        JsonNode created = new CBORMapper().readTree(mvcResult.getResponse().getContentAsByteArray());
+        assertAll(() -> {
+            assertThat(created.get("title").asText()).isEqualTo("Binary");
+            assertThat(created.get("dueDate").asText()).isEqualTo("2025-09-14");
+            assertThat(created.get("state").asText()).isEqualTo("READY");
+        });
+    }
+
+    @Test
+    public void getTasksShouldReturn4XXIfFieldUnknown() throws Exception {
+        mockMvc.perform(get("/tasks").param("fields", "id,owner")).andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/tasks/1").param("fields", "")).andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    public void getTasksShouldReturn4XXIfFilterInvalid() throws Exception {
+        // given, when, then
+        mockMvc.perform(get("/tasks").param("state", "FINISHED")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks").param("dueFrom", "2025-09-14").param("dueTo", "2025-09-08"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getTasksShouldReturn4XXIfCursorInvalid() throws Exception {
+        // given, when, then
+        mockMvc.perform(get("/tasks").param("cursor", "%%%")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportTasksShouldStreamOneTaskPerLine() throws Exception {
+        // given
+        addSampleData("I am one");
+        addSampleData("I am two");
+        // when
+        MvcResult mvcResult = mockMvc.perform(get("/tasks/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+        // then
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        assertAll(() -> {
+            assertThat(lines.length).isEqualTo(2);
+            assertThat(new JSONObject(lines[0]).getString("description")).isEqualTo("I am one");
+            assertThat(new JSONObject(lines[1]).getString("description")).isEqualTo("I am two");
+            assertThat(new JSONObject(lines[1]).getString("dueDate")).isEqualTo("2025-09-13");
+        });
+    }
+
     @Test
     public void getTaskShouldReturnCorrectTaskFromId() throws Exception {
         // given
@@ -145,6 +295,256 @@ public class TaskControllerIntegrationTest {
         });
     }
 
+    @Test
+    public void shouldPatchOnlyProvidedFields() throws Exception {
+        // given
+        addSampleData("I am the old description");
+        // when
+        MvcResult mvcResult = mockMvc.perform(
+                        patch("/tasks/1")
+                                .content("{\"state\":\"DOING\"}")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn();
+        // then
+        final JSONObject actualTask = new JSONObject(mvcResult.getResponse().getContentAsString());
+        assertAll(() -> {
+            assertThat(actualTask.getString("state")).isEqualTo("DOING");
+            assertThat(actualTask.getString("description")).isEqualTo("I am the old description");
+            assertThat(actualTask.getString("dueDate")).isEqualTo("2025-09-13");
+            assertThat(taskRepository.findById(1L).orElseThrow().getState()).isEqualTo(State.DOING);
+        });
+    }
+
+    @Test
+    public void patchTaskShouldReturn4XXIfIdMissing() throws Exception {
+        // given, when, then
+        mockMvc.perform(
+                        patch("/tasks/42")
+                                .content("{\"title\":\"Nope\"}")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void searchTasksShouldFindCreatedTasksByPrefix() throws Exception {
+        // given
+        for (String title : List.of("Pay the electricity bill", "Pay rent", "Call the electrician")) {
+            mockMvc.perform(post("/tasks/create")
+                            .content("{\"title\":\"" + title + "\"}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+        }
+        // when
+        MvcResult firstPage = mockMvc.perform(get("/tasks/search").param("q", "electric").param("limit", "1"))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult secondPage = mockMvc.perform(get("/tasks/search").param("q", "electric").param("limit", "1")
+                        .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult bothTerms = mockMvc.perform(get("/tasks/search").param("q", "pay elec"))
+                .andExpect(status().isOk()).andReturn();
+        // then
+        JSONArray firstTasks = new JSONArray(firstPage.getResponse().getContentAsString());
+        JSONArray secondTasks = new JSONArray(secondPage.getResponse().getContentAsString());
+        JSONArray bothTermsTasks = new JSONArray(bothTerms.getResponse().getContentAsString());
+        assertAll(() -> {
+            assertThat(firstPage.getResponse().getHeader("X-Total-Count")).isEqualTo("2");
+            assertThat(firstTasks.length()).isEqualTo(1);
+            assertThat(secondTasks.length()).isEqualTo(1);
+            assertThat(secondPage.getResponse().getHeader("X-Next-Cursor")).isNull();
+            assertThat(bothTermsTasks.length()).isEqualTo(1);
+            assertThat(bothTermsTasks.getJSONObject(0).getString("title")).isEqualTo("Pay the electricity bill");
+        });
+    }
+
+    @Test
+    public void searchTasksShouldReturn4XXIfQueryBlank() throws Exception {
+        // given, when, then
+        mockMvc.perform(get("/tasks/search").param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(DEFAULT_ERROR_MSG));
+    }
+
+    @Test
+    public void statsShouldFollowWritesAndMatchRecount() throws Exception {
+        // given
+        for (String dueDate : List.of("2000-01-01", "2000-01-02", "2999-01-01")) {
+            mockMvc.perform(post("/tasks/create")
+                            .content("{\"title\":\"Title\",\"dueDate\":\"" + dueDate + "\"}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(patch("/tasks/1").content("{\"state\":\"COMPLETED\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/tasks/3").content("{\"dueDate\":\"2000-01-03\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        // when
+        MvcResult stats = mockMvc.perform(get("/tasks/stats")).andExpect(status().isOk()).andReturn();
+        MvcResult check = mockMvc.perform(get("/tasks/stats/verify")).andExpect(status().isOk()).andReturn();
+        // then
+        JSONObject actualStats = new JSONObject(stats.getResponse().getContentAsString());
+        assertAll(() -> {
+            assertThat(actualStats.getLong("total")).isEqualTo(3);
+            assertThat(actualStats.getJSONObject("byState").getLong("READY")).isEqualTo(2);
+            assertThat(actualStats.getJSONObject("byState").getLong("COMPLETED")).isEqualTo(1);
+            assertThat(actualStats.getLong("overdue")).isEqualTo(2);
+            assertThat(new JSONObject(check.getResponse().getContentAsString()).getBoolean("consistent")).isTrue();
+        });
+    }
+
+    @Test
+    public void changesShouldReplayWritesSinceListedRevision() throws Exception {
+        // given
+        mockMvc.perform(post("/tasks/create").content("{\"title\":\"Before\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        String revision = mockMvc.perform(get("/tasks")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("X-Revision");
+        mockMvc.perform(post("/tasks/create").content("{\"title\":\"After\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/tasks/1").content("{\"state\":\"DOING\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        // when
+        MvcResult mvcResult = mockMvc.perform(get("/tasks/changes").param("since", revision))
+                .andExpect(status().isOk()).andReturn();
+        // then
+        JSONObject actual = new JSONObject(mvcResult.getResponse().getContentAsString());
+        JSONArray changes = actual.getJSONArray("changes");
+        assertAll(() -> {
+            assertThat(changes.length()).isEqualTo(2);
+            assertThat(changes.getJSONObject(0).getString("type")).isEqualTo("CREATED");
+            assertThat(changes.getJSONObject(0).getJSONObject("task").getString("title")).isEqualTo("After");
+            assertThat(changes.getJSONObject(1).getString("type")).isEqualTo("UPDATED");
+            assertThat(changes.getJSONObject(1).getLong("id")).isEqualTo(1);
+            assertThat(actual.getLong("revision")).isEqualTo(Long.parseLong(revision) + 2);
+            assertThat(actual.getBoolean("resyncRequired")).isFalse();
+        });
+    }
+
+    @Test
+    public void changesShouldReturn410IfRevisionIsUnknown() throws Exception {
+        mockMvc.perform(get("/tasks/changes").param("since", "1")).andExpect(status().isGone());
+    }
+
+    @Test
+    public void transitionShouldMoveMatchingTasksAndKeepStatsInStep() throws Exception {
+        // given
+        for (String dueDate : List.of("2025-09-01", "2025-09-20", "2025-10-15")) {
+            mockMvc.perform(post("/tasks/create")
+                            .content("{\"title\":\"Title\",\"dueDate\":\"" + dueDate + "\"}")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/tasks/1")).andExpect(status().isOk());
+        // when
+        MvcResult byFilter = mockMvc.perform(post("/tasks/transition")
+                        .content("{\"filter\":{\"state\":\"READY\",\"dueTo\":\"2025-09-30\"},\"to\":\"DOING\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult byId = mockMvc.perform(post("/tasks/transition")
+                        .content("{\"ids\":[1,3,99],\"to\":\"DOING\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn();
+        // then
+        JSONObject filterResult = new JSONObject(byFilter.getResponse().getContentAsString());
+        JSONObject idResult = new JSONObject(byId.getResponse().getContentAsString());
+        MvcResult task = mockMvc.perform(get("/tasks/1")).andExpect(status().isOk()).andReturn();
+        MvcResult check = mockMvc.perform(get("/tasks/stats/verify")).andExpect(status().isOk()).andReturn();
+        assertAll(() -> {
+            assertThat(filterResult.getLong("transitioned")).isEqualTo(2);
+            assertThat(idResult.getLong("transitioned")).isEqualTo(1);
+            assertThat(idResult.getLong("unchanged")).isEqualTo(1);
+            assertThat(idResult.getLong("missing")).isEqualTo(1);
+            // The cached copy read before the transition must not be served afterwards
+            assertThat(new JSONObject(task.getResponse().getContentAsString()).getString("state")).isEqualTo("DOING");
+            assertThat(task.getResponse().getHeader("ETag")).isEqualTo("\"1\"");
+            assertThat(new JSONObject(check.getResponse().getContentAsString()).getBoolean("consistent")).isTrue();
+        });
+    }
+
+    @Test
+    public void transitionShouldReturn4XXIfBothIdsAndFilterAreGiven() throws Exception {
+        mockMvc.perform(post("/tasks/transition")
+                        .content("{\"ids\":[1],\"filter\":{},\"to\":\"DOING\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    public void getTasksShouldNotReturn304IfARowSwapsInAndOutOfTheFilter() throws Exception {
+        // given tasks 2 and 3 are DOING at version 1 and task 1 is READY at version 0
+        addSampleData("One");
+        addSampleData("Two", State.DOING, LocalDate.of(2025, 9, 13));
+        addSampleData("Three", State.DOING, LocalDate.of(2025, 9, 13));
+        mockMvc.perform(patch("/tasks/2").content("{\"title\":\"Two\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/tasks/3").content("{\"title\":\"Three\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        String eTag = mockMvc.perform(get("/tasks").param("state", "DOING")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        // when task 1 enters the filter at version 1 and task 2 leaves it, keeping count, version sum and last id
+        mockMvc.perform(patch("/tasks/1").content("{\"state\":\"DOING\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/tasks/2").content("{\"state\":\"READY\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        // then
+        mockMvc.perform(get("/tasks").param("state", "DOING").header("If-None-Match", eTag)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void getTaskShouldReturn304IfETagMatches() throws Exception {
+        // given
+        addSampleData();
+        String eTag = mockMvc.perform(get("/tasks/1")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        // when, then
+        MvcResult mvcResult = mockMvc.perform(get("/tasks/1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified()).andReturn();
+        assertThat(mvcResult.getResponse().getContentAsString()).isEmpty();
+    }
+
+    @Test
+    public void getTasksShouldReturn304UntilATaskChanges() throws Exception {
+        // given
+        addSampleData();
+        String eTag = mockMvc.perform(get("/tasks")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        // when, then
+        mockMvc.perform(get("/tasks").header("If-None-Match", eTag)).andExpect(status().isNotModified());
+        mockMvc.perform(patch("/tasks/1").content("{\"state\":\"DOING\"}").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks").header("If-None-Match", eTag)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void updateTaskShouldReturn412IfVersionIsStale() throws Exception {
+        // given
+        addSampleData("I am the old description");
+        String eTag = mockMvc.perform(get("/tasks/1")).andReturn().getResponse().getHeader("ETag");
+        Task tempRequestTask = new Task();
+        tempRequestTask.setId(1L);
+        tempRequestTask.setDescription("First writer");
+        mockMvc.perform(
+                        put("/tasks/update")
+                                .header("If-Match", eTag)
+                                .content(objectMapper.writeValueAsString(tempRequestTask))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        tempRequestTask.setDescription("Second writer");
+        // when, then
+        mockMvc.perform(
+                        put("/tasks/update")
+                                .header("If-Match", eTag)
+                                .content(objectMapper.writeValueAsString(tempRequestTask))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(
+                        patch("/tasks/1")
+                                .header("If-Match", eTag)
+                                .content(objectMapper.writeValueAsString(tempRequestTask))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(taskRepository.findById(1L).orElseThrow().getDescription()).isEqualTo("First writer");
+    }
+
     @Test
     public void updateTaskReturns4XXIfRequestIsInvalid() throws Exception {
         // given
@@ -188,6 +588,55 @@ public class TaskControllerIntegrationTest {
         });
     }
 
+    @Test
+    public void shouldCreateAndUpdateTasksInBulk() throws Exception {
+        // given
+        Task first = new Task();
+        first.setTitle("First");
+        Task second = new Task();
+        second.setTitle("Second");
+        // when
+        mockMvc.perform(
+                        post("/tasks/create/bulk")
+                                .content(objectMapper.writeValueAsString(List.of(first, second)))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        Task update = new Task();
+        update.setId(2L);
+        update.setState(State.DOING);
+        MvcResult mvcResult = mockMvc.perform(
+                        put("/tasks/update/bulk")
+                                .content(objectMapper.writeValueAsString(List.of(update)))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()).andReturn();
+        // then
+        final JSONObject actualTask = new JSONArray(mvcResult.getResponse().getContentAsString()).getJSONObject(0);
+        assertAll(() -> {
+            assertThat(taskRepository.count()).isEqualTo(2);
+            assertThat(actualTask.getString("title")).isEqualTo("Second");
+            assertThat(actualTask.getString("state")).isEqualTo("DOING");
+        });
+    }
+
+    @Test
+    public void bulkUpdateShouldReturn4XXIfAnyTaskIsMissing() throws Exception {
+        // given
+        addSampleData();
+        Task existing = new Task();
+        existing.setId(1L);
+        existing.setTitle("Changed");
+        Task missing = new Task();
+        missing.setId(42L);
+        // when
+        mockMvc.perform(
+                        put("/tasks/update/bulk")
+                                .content(objectMapper.writeValueAsString(List.of(existing, missing)))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        // then
+        assertThat(taskRepository.findById(1L).orElseThrow().getTitle()).isEqualTo("Title");
+    }
+
     @Test
     public void createTaskShouldReturn4XXIfRequestIsInvalid() throws Exception {
         // given
@@ -210,11 +659,15 @@ public class TaskControllerIntegrationTest {
     }
 
     private void addSampleData(String desc) {
+        addSampleData(desc, State.READY, LocalDate.of(2025, 9, 13));
+    }
+
+    private void addSampleData(String desc, State state, LocalDate dueDate) {
         task = new Task();
         task.setTitle("Title");
         task.setDescription(desc);
-        task.setDueDate(LocalDate.of(2025, 9, 13));
-        task.setState(State.READY);
+        task.setDueDate(dueDate);
+        task.setState(state);
         taskRepository.save(task);
     }
 }
@@ -0,0 +1,148 @@
+package com.todolist.todolist.repository.archive;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskArchiveTest {
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldRoundTripEveryColumn() {
+        // given
+        Task full = task(7L, "Ship it", "With a description \u00e9", LocalDate.of(1969, 7, 20));
+        Task sparse = task(3L, null, null, null);
+        sparse.setState(null);
+
+        // when
+        List<Task> decoded = ArchiveSegment.decode(ArchiveSegment.encode(List.of(full, sparse)));
+
+        // then
+        assertEquals(List.of(3L, 7L), decoded.stream().map(Task::getId).toList());
+        Task decodedSparse = decoded.get(0);
+        assertNull(decodedSparse.getTitle());
+        assertNull(decodedSparse.getDescription());
+        assertNull(decodedSparse.getDueDate());
+        assertNull(decodedSparse.getState());
+        Task decodedFull = decoded.get(1);
+        assertEquals("Ship it", decodedFull.getTitle());
+        assertEquals("With a description \u00e9", decodedFull.getDescription());
+        assertEquals(LocalDate.of(1969, 7, 20), decodedFull.getDueDate());
+        assertEquals(State.COMPLETED, decodedFull.getState());
+        assertEquals(2L, decodedFull.getVersion());
+    }
+
+    @Test
+    void shouldOnlyListCommittedSegmentsAndKeepThemAcrossRestarts() {
+        // given
+        TaskArchive archive = new TaskArchive(directory, true);
+        TaskArchive.PendingSegment pending = archive.prepare(List.of(task(1L, "First"), task(2L, "Second")));
+        assertEquals(0, archive.size());
+        assertTrue(archive.findPage(0L, 10).isEmpty());
+
+        // when
+        archive.commit(pending);
+        archive.commit(archive.prepare(List.of(task(5L, "Third"))));
+        TaskArchive reopened = new TaskArchive(directory, false);
+
+        // then
+        assertEquals("First", archive.get(1L).orElseThrow().getTitle());
+        assertEquals(3, reopened.size());
+        assertEquals(List.of(2L, 5L), reopened.findPage(1L, 10).stream().map(Task::getId).toList());
+        assertEquals("Third", reopened.get(5L).orElseThrow().getTitle());
+    }
+
+    @Test
+    void shouldServePreparedTasksUntilCommittedOrAbandoned() {
+        // given
+        TaskArchive archive = new TaskArchive(directory, true);
+        TaskArchive.PendingSegment committing = archive.prepare(List.of(task(1L, "Committing")));
+        TaskArchive.PendingSegment failing = archive.prepare(List.of(task(2L, "Failing")));
+
+        // when the delete has committed but the segment has not been moved into place yet
+        Task duringGap = archive.get(1L).orElseThrow();
+        archive.commit(committing);
+        archive.abandon(failing);
+
+        // then
+        assertEquals("Committing", duringGap.getTitle());
+        assertEquals("Committing", archive.get(1L).orElseThrow().getTitle());
+        assertTrue(archive.get(2L).isEmpty());
+    }
+
+    @Test
+    void shouldMergeOverlappingSegmentsAndResolveTasksToTheirNewestSegment() {
+        // given
+        TaskArchive archive = new TaskArchive(directory, true);
+        archive.commit(archive.prepare(List.of(task(1L, "Old"), task(4L, "Four"), task(9L, "Nine"))));
+        archive.commit(archive.prepare(List.of(task(2L, "Two"), task(4L, "New"), task(6L, "Six"))));
+
+        // when
+        TaskArchive reopened = new TaskArchive(directory, false);
+
+        // then
+        for (TaskArchive current : List.of(archive, reopened)) {
+            assertEquals(5, current.size());
+            assertEquals(List.of(2L, 4L, 6L, 9L), current.findPage(1L, 10).stream().map(Task::getId).toList());
+            assertEquals(List.of("Two", "New"), current.findPage(1L, 2).stream().map(Task::getTitle).toList());
+            assertEquals("New", current.get(4L).orElseThrow().getTitle());
+            assertTrue(current.get(3L).isEmpty());
+            assertTrue(current.get(10L).isEmpty());
+        }
+    }
+
+    @Test
+    void shouldKeepOnlyDeletedTasksOfPendingSegmentOnRecovery() throws IOException {
+        // given
+        TaskArchive archive = new TaskArchive(directory, true);
+        archive.prepare(List.of(task(1L, "Deleted before the crash"), task(2L, "Still live")));
+        archive.prepare(List.of(task(3L, "Never deleted")));
+
+        // when
+        TaskArchive recovered = new TaskArchive(directory, true);
+        recovered.recoverPending(Set.of(2L, 3L)::contains);
+
+        // then
+        assertEquals(1, recovered.size());
+        assertTrue(recovered.get(1L).isPresent());
+        assertTrue(recovered.get(2L).isEmpty());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("archive-0000000000000001.seg"), files.map(file -> file.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    void shouldRejectWritesWhenDisabled() {
+        TaskArchive archive = new TaskArchive(directory.resolve("missing"), false);
+        assertEquals(0, archive.size());
+        assertFalse(Files.exists(directory.resolve("missing")));
+        assertThrows(IllegalStateException.class, () -> archive.prepare(List.of(task(1L, "Nope"))));
+    }
+
+    private static Task task(Long id, String title) {
+        return task(id, title, "Description of " + title, LocalDate.of(2025, 9, 13));
+    }
+
+    private static Task task(Long id, String title, String description, LocalDate dueDate) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setDueDate(dueDate);
+        task.setState(State.COMPLETED);
+        task.setVersion(2L);
+        return task;
+    }
+}
@@ -0,0 +1,221 @@
+package com.todolist.todolist.repository.log;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Crashes are simulated by opening a second log on the same directory without closing the first,
+ * which is what a restart after the process was killed looks like on disk.
+ */
+class TaskLogTest {
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldRecoverTasksAfterCrash() {
+        // given
+        TaskLog taskLog = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.NEVER);
+        Task task = task("Survive the crash");
+        taskLog.save(List.of(task));
+        task.setState(State.DOING);
+        taskLog.save(List.of(task));
+        taskLog.save(List.of(task("Deleted before the crash")));
+        taskLog.delete(2L);
+
+        // when
+        TaskLog recovered = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.NEVER);
+
+        // then
+        assertEquals(1, recovered.size());
+        Task recoveredTask = recovered.get(1L);
+        assertEquals("Survive the crash", recoveredTask.getTitle());
+        assertEquals(State.DOING, recoveredTask.getState());
+        assertEquals(LocalDate.of(2025, 9, 13), recoveredTask.getDueDate());
+        assertEquals(1L, recoveredTask.getVersion());
+        assertNull(recovered.get(2L));
+    }
+
+    @Test
+    void shouldDiscardTornRecordAtEndOfLog() throws IOException {
+        // given
+        TaskLog taskLog = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.NEVER);
+        taskLog.save(List.of(task("Complete")));
+        taskLog.save(List.of(task("Only half of me reached the disk")));
+        Path segment = lastFile(directory, "segment");
+        byte[] bytes = Files.readAllBytes(segment);
+        int end = endOfData(bytes);
+        for (int i = end - 10; i < end; i++) {
+            bytes[i] = 0;
+        }
+        Files.write(segment, bytes);
+
+        // when
+        TaskLog recovered = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.NEVER);
+        recovered.save(List.of(task("Written after recovery")));
+        TaskLog recoveredAgain = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.NEVER);
+
+        // then
+        assertEquals("Complete", recoveredAgain.get(1L).getTitle());
+        assertEquals("Written after recovery", recoveredAgain.get(2L).getTitle());
+        assertEquals(2, recoveredAgain.size());
+    }
+
+    @Test
+    void shouldDiscardRecordWithBadChecksum() throws IOException {
+        // given
+        TaskLog taskLog = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.ALWAYS);
+        taskLog.save(List.of(task("Intact")));
+        taskLog.save(List.of(task("Corrupted")));
+        Path segment = lastFile(directory, "segment");
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[endOfData(bytes) - 3] ^= 0x20;
+        Files.write(segment, bytes);
+
+        // when
+        TaskLog recovered = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.ALWAYS);
+
+        // then
+        assertEquals(1, recovered.size());
+        assertEquals("Intact", recovered.get(1L).getTitle());
+    }
+
+    @Test
+    void shouldRecoverFromSnapshotAndLaterSegments() throws IOException {
+        // given
+        TaskLog taskLog = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.INTERVAL);
+        for (int i = 1; i <= 200; i++) {
+            taskLog.save(List.of(task("Task " + i)));
+        }
+        for (long id = 1; id <= 200; id += 2) {
+            Task task = taskLog.get(id);
+            task.setState(State.COMPLETED);
+            taskLog.save(List.of(task));
+        }
+        for (long id = 150; id <= 200; id++) {
+            taskLog.delete(id);
+        }
+        long segmentsBefore = countFiles(directory, "segment");
+
+        // when
+        taskLog.snapshot();
+        taskLog.save(List.of(task("After the snapshot")));
+        TaskLog recovered = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.INTERVAL);
+
+        // then
+        assertTrue(segmentsBefore > 1);
+        assertEquals(1, countFiles(directory, "snapshot"));
+        assertEquals(1, countFiles(directory, "segment"));
+        assertEquals(150, recovered.size());
+        assertEquals(State.COMPLETED, recovered.get(1L).getState());
+        assertEquals(State.READY, recovered.get(2L).getState());
+        assertNull(recovered.get(150L));
+        // Ids of tasks deleted before the snapshot are not handed out again
+        assertEquals("After the snapshot", recovered.get(201L).getTitle());
+        assertEquals(List.of(1L, 2L, 3L), recovered.tasksAfter(0).limit(3).map(Task::getId).toList());
+    }
+
+    @Test
+    void shouldKeepServingReadsWhileSnapshotReplacesFiles() {
+        // given
+        TaskLog taskLog = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.NEVER);
+        for (int i = 1; i <= 100; i++) {
+            taskLog.save(List.of(task("Task " + i)));
+        }
+
+        // when
+        taskLog.snapshot();
+        taskLog.snapshot();
+
+        // then
+        assertEquals(100, taskLog.size());
+        assertEquals("Task 42", taskLog.get(42L).getTitle());
+    }
+
+    @Test
+    void shouldRejectStaleVersion() {
+        // given
+        TaskLog taskLog = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.NEVER);
+        Task task = task("Versioned");
+        taskLog.save(List.of(task));
+        Task stale = taskLog.get(1L);
+        taskLog.save(List.of(task));
+
+        // when, then
+        assertThrows(OptimisticLockingFailureException.class, () -> taskLog.save(List.of(stale)));
+        Task changes = new Task();
+        changes.setVersion(0L);
+        changes.setTitle("Patched");
+        assertTrue(taskLog.patch(1L, changes).isEmpty());
+        changes.setVersion(1L);
+        assertEquals("Versioned", taskLog.patch(1L, changes).orElseThrow().getTitle());
+        assertEquals("Patched", taskLog.get(1L).getTitle());
+        assertEquals(2L, taskLog.get(1L).getVersion());
+    }
+
+    @Test
+    void shouldNotReviveDeletedTaskOnSave() {
+        // given
+        TaskLog taskLog = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.NEVER);
+        taskLog.save(List.of(task("Deleted while being edited")));
+        Task read = taskLog.get(1L);
+        taskLog.delete(1L);
+        read.setTitle("Edited");
+
+        // when, then
+        assertThrows(OptimisticLockingFailureException.class, () -> taskLog.save(List.of(read)));
+        assertNull(taskLog.get(1L));
+        assertEquals(0, taskLog.size());
+    }
+
+    @Test
+    void shouldRejectTaskLargerThanSegment() {
+        TaskLog taskLog = TaskLog.open(directory, SEGMENT_SIZE, FsyncPolicy.NEVER);
+        assertThrows(IllegalArgumentException.class, () -> taskLog.save(List.of(task("x".repeat(SEGMENT_SIZE)))));
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription("Description of " + title);
+        task.setState(State.READY);
+        task.setDueDate(LocalDate.of(2025, 9, 13));
+        return task;
+    }
+
+    private static Path lastFile(Path directory, String kind) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(kind))
+                    .max(Comparator.comparing(file -> file.getFileName().toString()))
+                    .orElseThrow();
+        }
+    }
+
+    private static long countFiles(Path directory, String kind) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(kind)).count();
+        }
+    }
+
+    private static int endOfData(byte[] bytes) {
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] == 0) {
+            end--;
+        }
+        return end;
+    }
+}
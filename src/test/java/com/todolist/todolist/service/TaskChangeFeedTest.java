@@ -0,0 +1,210 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.ChangeType;
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskChange;
+import com.todolist.todolist.dto.TaskChanges;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskChangeFeedTest {
+    private static final long START = Instant.parse("2025-09-13T00:00:00Z").toEpochMilli() * 1000;
+
+    private TaskChangeFeed taskChangeFeed;
+
+    @BeforeEach
+    void setup() {
+        taskChangeFeed = new TaskChangeFeed(4, Clock.fixed(Instant.parse("2025-09-13T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void teardown() {
+        taskChangeFeed.stop();
+    }
+
+    @Test
+    void shouldNumberChangesInCommitOrder() {
+        // given
+        Task task = task(1L, State.READY);
+        Task doing = task(1L, State.DOING);
+        doing.setVersion(1L);
+
+        // when
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.created(task));
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.updated(task, doing));
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.deleted(doing));
+
+        // then
+        TaskChanges changes = taskChangeFeed.changesSince(START, 10);
+        assertEquals(START + 3, taskChangeFeed.revision());
+        assertEquals(START + 3, changes.revision());
+        assertFalse(changes.resyncRequired());
+        assertEquals(List.of(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED),
+                changes.changes().stream().map(TaskChange::type).toList());
+        assertEquals(State.DOING, changes.changes().get(1).task().getState());
+        // Deletes are tombstones carrying only the id
+        assertEquals(1L, changes.changes().get(2).id());
+        assertNull(changes.changes().get(2).task());
+    }
+
+    @Test
+    void shouldNotNumberChangesOlderThanTheLastOneForTheTask() {
+        // given
+        Task created = task(1L, State.READY);
+        Task doing = task(1L, State.DOING);
+        doing.setVersion(1L);
+        Task completed = task(1L, State.COMPLETED);
+        completed.setVersion(2L);
+
+        // when
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.created(created));
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.updated(doing, completed));
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.updated(created, doing));
+
+        // then
+        TaskChanges changes = taskChangeFeed.changesSince(START, 10);
+        assertEquals(START + 2, changes.revision());
+        assertEquals(List.of(State.READY, State.COMPLETED), changes.changes().stream().map(change -> change.task().getState()).toList());
+
+        // when
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.deleted(completed));
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.updated(doing, completed));
+
+        // then
+        assertEquals(START + 3, taskChangeFeed.revision());
+    }
+
+    @Test
+    void shouldPageThroughChanges() {
+        // given
+        for (long id = 1; id <= 3; id++) {
+            taskChangeFeed.onTaskChanged(TaskChangedEvent.created(task(id, State.READY)));
+        }
+
+        // when
+        TaskChanges first = taskChangeFeed.changesSince(START, 2);
+        TaskChanges second = taskChangeFeed.changesSince(first.revision(), 2);
+
+        // then
+        assertEquals(List.of(1L, 2L), first.changes().stream().map(TaskChange::id).toList());
+        assertEquals(List.of(3L), second.changes().stream().map(TaskChange::id).toList());
+        assertTrue(taskChangeFeed.changesSince(second.revision(), 2).changes().isEmpty());
+    }
+
+    @Test
+    void shouldRequireResyncOnceChangesAreOverwritten() {
+        // given
+        for (long id = 1; id <= 6; id++) {
+            taskChangeFeed.onTaskChanged(TaskChangedEvent.created(task(id, State.READY)));
+        }
+
+        // when, then
+        assertTrue(taskChangeFeed.changesSince(START, 10).resyncRequired());
+        assertTrue(taskChangeFeed.changesSince(START + 1, 10).resyncRequired());
+        assertEquals(List.of(3L, 4L, 5L, 6L), taskChangeFeed.changesSince(START + 2, 10).changes().stream().map(TaskChange::id).toList());
+        // A revision from before a restart or from the future is just as unknown
+        assertTrue(taskChangeFeed.changesSince(42, 10).resyncRequired());
+        assertTrue(taskChangeFeed.changesSince(START + 7, 10).resyncRequired());
+    }
+
+    @Test
+    void shouldReplayMissedChangesThenStreamNewOnes() throws InterruptedException {
+        // given
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.created(task(1L, State.READY)));
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.created(task(2L, State.READY)));
+
+        // when
+        TaskChangeFeed.Subscription subscription = taskChangeFeed.subscribe(START + 1, listener(received));
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.created(task(3L, State.READY)));
+
+        // then
+        assertEquals(START + 2, ((TaskChange) received.poll(5, TimeUnit.SECONDS)).revision());
+        assertEquals(START + 3, ((TaskChange) received.poll(5, TimeUnit.SECONDS)).revision());
+        subscription.cancel();
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.created(task(4L, State.READY)));
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldTellSubscriberToResyncIfTooFarBehind() throws InterruptedException {
+        // given
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+
+        // when
+        taskChangeFeed.subscribe(42L, listener(received));
+
+        // then
+        assertEquals(START, received.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldKeepServingOtherSubscribersWhileOneIsStalled() throws InterruptedException {
+        // given
+        CountDownLatch unstall = new CountDownLatch(1);
+        BlockingQueue<Object> stalled = new LinkedBlockingQueue<>();
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        taskChangeFeed.subscribe(null, new TaskChangeFeed.Listener() {
+            @Override
+            public void onChange(TaskChange change) throws InterruptedException {
+                stalled.add(change);
+                unstall.await();
+            }
+
+            @Override
+            public void onResyncRequired(long revision) {
+                stalled.add(revision);
+            }
+        });
+        taskChangeFeed.subscribe(null, listener(received));
+        taskChangeFeed.onTaskChanged(TaskChangedEvent.created(task(1L, State.READY)));
+        assertEquals(START + 1, ((TaskChange) stalled.poll(5, TimeUnit.SECONDS)).revision());
+        assertEquals(START + 1, ((TaskChange) received.poll(5, TimeUnit.SECONDS)).revision());
+
+        // when, then
+        for (long id = 2; id <= 6; id++) {
+            taskChangeFeed.onTaskChanged(TaskChangedEvent.created(task(id, State.READY)));
+            assertEquals(START + id, ((TaskChange) received.poll(5, TimeUnit.SECONDS)).revision());
+        }
+        // The stalled subscriber fell further behind than the ring reaches and has to resync
+        unstall.countDown();
+        assertEquals(START + 6, stalled.poll(5, TimeUnit.SECONDS));
+        assertNull(stalled.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private static TaskChangeFeed.Listener listener(BlockingQueue<Object> received) {
+        return new TaskChangeFeed.Listener() {
+            @Override
+            public void onChange(TaskChange change) {
+                received.add(change);
+            }
+
+            @Override
+            public void onResyncRequired(long revision) {
+                received.add(revision);
+            }
+        };
+    }
+
+    private static Task task(Long id, State state) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setState(state);
+        task.setVersion(0L);
+        return task;
+    }
+}
@@ -0,0 +1,117 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskCount;
+import com.todolist.todolist.dto.TaskStats;
+import com.todolist.todolist.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+class TaskCountersTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 13);
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private Clock clock;
+
+    private TaskCounters taskCounters;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        setToday(TODAY);
+        taskCounters = new TaskCounters(taskRepository, clock);
+    }
+
+    @Test
+    void shouldLoadCountersFromRepository() {
+        // given
+        when(taskRepository.countByStateAndDueDate()).thenReturn(List.of(
+                new TaskCount(State.READY, TODAY.minusDays(1), 3),
+                new TaskCount(State.READY, TODAY, 2),
+                new TaskCount(State.COMPLETED, TODAY.minusDays(1), 4),
+                new TaskCount(State.DOING, null, 1)));
+
+        // when
+        taskCounters.afterSingletonsInstantiated();
+
+        // then
+        assertEquals(new TaskStats(10, Map.of(State.READY, 5L, State.DOING, 1L, State.COMPLETED, 4L), 3),
+                taskCounters.stats());
+    }
+
+    @Test
+    void shouldFollowStateAndDueDateChanges() {
+        // given
+        Task task = task(State.READY, TODAY.minusDays(2));
+        taskCounters.onTaskChanged(TaskChangedEvent.created(task));
+        Task completed = task(State.COMPLETED, TODAY.minusDays(2));
+
+        // when
+        taskCounters.onTaskChanged(TaskChangedEvent.updated(task, completed));
+
+        // then
+        assertEquals(new TaskStats(1, Map.of(State.READY, 0L, State.DOING, 0L, State.COMPLETED, 1L), 0),
+                taskCounters.stats());
+
+        // when
+        taskCounters.onTaskChanged(TaskChangedEvent.deleted(completed));
+
+        // then
+        assertEquals(0, taskCounters.stats().total());
+    }
+
+    @Test
+    void shouldCountTasksAsOverdueOnceTheirDueDatePasses() {
+        // given
+        taskCounters.onTaskChanged(TaskChangedEvent.created(task(State.READY, TODAY)));
+        taskCounters.onTaskChanged(TaskChangedEvent.created(task(State.DOING, TODAY.plusDays(1))));
+        assertEquals(0, taskCounters.stats().overdue());
+
+        // when
+        setToday(TODAY.plusDays(2));
+
+        // then
+        assertEquals(2, taskCounters.stats().overdue());
+    }
+
+    @Test
+    void shouldRecountFromRepository() {
+        // given
+        when(taskRepository.countByStateAndDueDate()).thenReturn(List.of(
+                new TaskCount(State.DOING, TODAY.minusDays(1), 2),
+                new TaskCount(null, TODAY.plusDays(1), 1)));
+
+        // when
+        TaskStats recounted = taskCounters.recount();
+
+        // then
+        assertEquals(new TaskStats(3, Map.of(State.READY, 0L, State.DOING, 2L, State.COMPLETED, 0L), 2), recounted);
+    }
+
+    private void setToday(LocalDate today) {
+        when(clock.instant()).thenReturn(today.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    private static Task task(State state, LocalDate dueDate) {
+        Task task = new Task();
+        task.setId(1L);
+        task.setState(state);
+        task.setDueDate(dueDate);
+        return task;
+    }
+}
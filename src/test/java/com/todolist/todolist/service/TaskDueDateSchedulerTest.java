@@ -0,0 +1,168 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskDueDateSchedulerTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 13);
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private Clock clock;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TaskDueDateScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        setToday(TODAY);
+        scheduler = new TaskDueDateScheduler(taskRepository, clock, eventPublisher, 2, 3600);
+    }
+
+    @AfterEach
+    void teardown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void shouldLoadOnlyOpenTasksThatAreNotOverdueYet() {
+        // given
+        doAnswer(invocation -> {
+            Consumer<Task> sink = invocation.getArgument(0);
+            sink.accept(task(1L, State.READY, TODAY));
+            sink.accept(task(2L, State.DOING, TODAY.plusDays(3)));
+            sink.accept(task(3L, State.COMPLETED, TODAY.plusDays(1)));
+            sink.accept(task(4L, State.READY, TODAY.minusDays(1)));
+            sink.accept(task(5L, State.READY, null));
+            return null;
+        }).when(taskRepository).forEachTask(any());
+
+        // when
+        scheduler.afterSingletonsInstantiated();
+
+        // then
+        assertEquals(2, scheduler.size());
+    }
+
+    @Test
+    void shouldPublishTasksInBatchesOnceTheirDueDateHasPassed() {
+        // given
+        for (long id = 1; id <= 3; id++) {
+            scheduler.onTaskChanged(TaskChangedEvent.created(task(id, State.READY, TODAY)));
+        }
+        scheduler.onTaskChanged(TaskChangedEvent.created(task(4L, State.READY, TODAY.plusDays(1))));
+
+        // when
+        scheduler.tick();
+        setToday(TODAY.plusDays(1));
+        scheduler.tick();
+
+        // then
+        ArgumentCaptor<TasksOverdueEvent> events = ArgumentCaptor.forClass(TasksOverdueEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(new TasksOverdueEvent(TODAY, List.of(1L, 2L)), new TasksOverdueEvent(TODAY, List.of(3L))),
+                events.getAllValues());
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    void shouldFollowChangesToDueDateAndState() {
+        // given
+        Task task = task(1L, State.READY, TODAY);
+        Task completed = task(2L, State.READY, TODAY);
+        scheduler.onTaskChanged(TaskChangedEvent.created(task));
+        scheduler.onTaskChanged(TaskChangedEvent.created(completed));
+
+        // when
+        scheduler.onTaskChanged(TaskChangedEvent.updated(task, task(1L, State.READY, TODAY.plusDays(7))));
+        scheduler.onTaskChanged(TaskChangedEvent.updated(completed, task(2L, State.COMPLETED, TODAY)));
+        setToday(TODAY.plusDays(1));
+        scheduler.tick();
+
+        // then
+        verify(eventPublisher, never()).publishEvent(any(TasksOverdueEvent.class));
+        assertEquals(1, scheduler.size());
+        scheduler.onTaskChanged(TaskChangedEvent.deleted(task(1L, State.READY, TODAY.plusDays(7))));
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void shouldIgnoreChangesOlderThanTheAppliedVersion() {
+        // given
+        Task v1 = task(1L, State.READY, TODAY);
+        v1.setVersion(1L);
+        Task v2 = task(1L, State.READY, TODAY.plusDays(7));
+        v2.setVersion(2L);
+
+        // when
+        scheduler.onTaskChanged(TaskChangedEvent.updated(v1, v2));
+        scheduler.onTaskChanged(TaskChangedEvent.created(v1));
+        setToday(TODAY.plusDays(1));
+        scheduler.tick();
+
+        // then
+        verify(eventPublisher, never()).publishEvent(any(TasksOverdueEvent.class));
+        assertEquals(1, scheduler.size());
+
+        // when
+        scheduler.onTaskChanged(TaskChangedEvent.deleted(v2));
+        scheduler.onTaskChanged(TaskChangedEvent.updated(v1, v2));
+
+        // then
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void shouldNotRetrackTaskFromAnEventOlderThanItsCompletion() {
+        // given
+        Task open = task(1L, State.READY, TODAY.plusDays(1));
+        open.setVersion(1L);
+        Task completed = task(1L, State.COMPLETED, TODAY.plusDays(1));
+        completed.setVersion(2L);
+
+        // when
+        scheduler.onTaskChanged(TaskChangedEvent.updated(open, completed));
+        scheduler.onTaskChanged(TaskChangedEvent.created(open));
+
+        // then
+        assertEquals(0, scheduler.size());
+    }
+
+    private void setToday(LocalDate date) {
+        when(clock.instant()).thenReturn(date.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    private static Task task(Long id, State state, LocalDate dueDate) {
+        Task task = new Task();
+        task.setId(id);
+        task.setState(state);
+        task.setDueDate(dueDate);
+        return task;
+    }
+}
@@ -0,0 +1,155 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.State;
+import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+class TaskSearchIndexTest {
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskSearchIndex taskSearchIndex;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        taskSearchIndex = new TaskSearchIndex(taskRepository);
+    }
+
+    @Test
+    void shouldBuildIndexFromRepository() {
+        // given
+        doAnswer(invocation -> {
+            Consumer<Task> sink = invocation.getArgument(0);
+            sink.accept(task(1L, "Buy milk", "From the corner shop"));
+            sink.accept(task(2L, "Walk the dog", null));
+            return null;
+        }).when(taskRepository).forEachTask(any());
+
+        // when
+        taskSearchIndex.afterSingletonsInstantiated();
+
+        // then
+        assertEquals(2, taskSearchIndex.size());
+        assertArrayEquals(new long[]{1L}, taskSearchIndex.search("corner", 0, 10).ids());
+    }
+
+    @Test
+    void shouldMatchAllTermsAndLastTermAsPrefix() {
+        // given
+        taskSearchIndex.index(task(1L, "Write report", "Quarterly numbers"));
+        taskSearchIndex.index(task(2L, "Write letter", "To the bank"));
+        taskSearchIndex.index(task(3L, "Read report", null));
+
+        // when
+        TaskSearchIndex.SearchHits hits = taskSearchIndex.search("WRITE rep", 0, 10);
+
+        // then
+        assertArrayEquals(new long[]{1L}, hits.ids());
+        assertEquals(1, hits.total());
+    }
+
+    @Test
+    void shouldRankTitleMatchesAndRareTermsHigher() {
+        // given
+        taskSearchIndex.index(task(1L, "Groceries", "Remember the invoice"));
+        taskSearchIndex.index(task(2L, "Invoice", "Send it"));
+        taskSearchIndex.index(task(3L, "Chores", null));
+
+        // when
+        TaskSearchIndex.SearchHits hits = taskSearchIndex.search("invoice", 0, 10);
+
+        // then
+        assertArrayEquals(new long[]{2L, 1L}, hits.ids());
+    }
+
+    @Test
+    void shouldPaginateRankedResults() {
+        // given
+        for (long id = 1; id <= 25; id++) {
+            taskSearchIndex.index(task(id, "Task " + id, id % 2 == 0 ? "task" : null));
+        }
+
+        // when
+        TaskSearchIndex.SearchHits first = taskSearchIndex.search("task", 0, 10);
+        TaskSearchIndex.SearchHits last = taskSearchIndex.search("task", 20, 10);
+
+        // then
+        assertEquals(25, first.total());
+        assertArrayEquals(new long[]{2L, 4L, 6L, 8L, 10L, 12L, 14L, 16L, 18L, 20L}, first.ids());
+        assertArrayEquals(new long[]{17L, 19L, 21L, 23L, 25L}, last.ids());
+    }
+
+    @Test
+    void shouldFollowTaskChanges() {
+        // given
+        Task task = task(1L, "Old title", null);
+        taskSearchIndex.index(task);
+        Task updated = task(1L, "New title", null);
+
+        // when
+        taskSearchIndex.onTaskChanged(TaskChangedEvent.updated(task, updated));
+
+        // then
+        assertEquals(0, taskSearchIndex.search("old", 0, 10).total());
+        assertArrayEquals(new long[]{1L}, taskSearchIndex.search("new", 0, 10).ids());
+
+        // when
+        taskSearchIndex.onTaskChanged(TaskChangedEvent.deleted(updated));
+
+        // then
+        assertEquals(0, taskSearchIndex.search("title", 0, 10).total());
+        assertEquals(0, taskSearchIndex.size());
+    }
+
+    @Test
+    void shouldIgnoreChangesOlderThanTheIndexedVersion() {
+        // given
+        Task v1 = task(1L, "Draft title", null);
+        v1.setVersion(1L);
+        Task v2 = task(1L, "Final title", null);
+        v2.setVersion(2L);
+
+        // when
+        taskSearchIndex.onTaskChanged(TaskChangedEvent.updated(v1, v2));
+        taskSearchIndex.onTaskChanged(TaskChangedEvent.updated(task(1L, "Original title", null), v1));
+
+        // then
+        assertArrayEquals(new long[]{1L}, taskSearchIndex.search("final", 0, 10).ids());
+        assertEquals(0, taskSearchIndex.search("draft", 0, 10).total());
+
+        // when
+        taskSearchIndex.onTaskChanged(TaskChangedEvent.deleted(v2));
+        taskSearchIndex.onTaskChanged(TaskChangedEvent.updated(v1, v2));
+
+        // then
+        assertEquals(0, taskSearchIndex.size());
+    }
+
+    @Test
+    void shouldIgnorePunctuationAndCase() {
+        assertEquals(List.of("don", "t", "forget", "2x", "caf\u00e9"), TaskSearchIndex.tokenize("Don't FORGET: 2x caf\u00e9!"));
+        assertEquals(List.of(), TaskSearchIndex.tokenize("  ...  "));
+    }
+
+    private static Task task(Long id, String title, String description) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setState(State.READY);
+        return task;
+    }
+}
@@ -2,23 +2,58 @@ package com.todolist.todolist.service;
 
 import com.todolist.todolist.dto.State;
 import com.todolist.todolist.dto.Task;
+import com.todolist.todolist.dto.TaskField;
+import com.todolist.todolist.dto.TaskFilter;
+import com.todolist.todolist.dto.TaskPage;
+import com.todolist.todolist.dto.TaskSearchResult;
+import com.todolist.todolist.dto.TaskStats;
+import com.todolist.todolist.dto.TaskTransition;
+import com.todolist.todolist.dto.TaskTransitionResult;
 import com.todolist.todolist.repository.TaskRepository;
+import com.todolist.todolist.repository.archive.TaskArchive;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+    @Mock
+    private TaskCounters taskCounters;
+    @Mock
+    private TaskChangeFeed taskChangeFeed;
+    @Mock
+    private TaskArchive taskArchive;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     private TaskService taskService;
     private Task expectedTask;
@@ -28,7 +63,8 @@ class TaskServiceTest {
     void setup() {
         MockitoAnnotations.openMocks(this);
 
-        taskService = new TaskService(taskRepository);
+        taskService = new TaskService(taskRepository, new TaskCache(100, 300), taskSearchIndex, taskCounters,
+                new TaskWriteBatcher(transactionManager, false, 256, 500, 10_000, 1000, 10_000, "jpa"), taskChangeFeed, taskArchive, eventPublisher);
 
         expectedTask = new Task();
         expectedTask.setTitle("I am a Title");
@@ -36,6 +72,7 @@ class TaskServiceTest {
         expectedTask.setDescription("I am a description");
         expectedTask.setState(State.READY);
         expectedTask.setDueDate(LocalDate.MAX);
+        expectedTask.setVersion(3L);
     }
 
     @Test
@@ -112,4 +149,326 @@ class TaskServiceTest {
         update.setId(null);
         assertThrows(IllegalArgumentException.class, () -> taskService.updateTask(update));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnNextCursorWhenMoreTasksExist() {
+        Task second = new Task();
+        second.setId(2L);
+        when(taskRepository.findPage(TaskFilter.NONE, 0L, 2)).thenReturn(List.of(expectedTask, second));
+
+        TaskPage page = taskService.getTasks(TaskFilter.NONE, null, 1);
+
+        assertEquals(List.of(expectedTask), page.tasks());
+        assertEquals(1L, TaskCursor.decode(page.next()));
+    }
+
+    @Test
+    void shouldStartAfterCursor() {
+        when(taskRepository.findPage(TaskFilter.NONE, 1L, 11)).thenReturn(List.of());
+
+        TaskPage page = taskService.getTasks(TaskFilter.NONE, TaskCursor.encode(1L), 10);
+
+        assertTrue(page.tasks().isEmpty());
+        assertNull(page.next());
+    }
+
+    @Test
+    void shouldReadOnlySelectedFieldsFromRepository() {
+        // given
+        Set<TaskField> fields = Set.of(TaskField.TITLE);
+        Task partial = new Task();
+        partial.setId(1L);
+        partial.setTitle("Title");
+        when(taskRepository.findPage(TaskFilter.NONE, 0L, 11, fields)).thenReturn(List.of(partial));
+        when(taskRepository.findFieldsById(1L, fields)).thenReturn(Optional.of(partial));
+
+        // when
+        TaskPage page = taskService.getTasks(TaskFilter.NONE, null, 10, fields);
+        Task task = taskService.getTask(1L, fields);
+
+        // then
+        assertEquals(List.of(partial), page.tasks());
+        assertNull(page.next());
+        assertEquals(partial, task);
+        verify(taskRepository, times(0)).findById(1L);
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTask(2L, fields));
+    }
+
+    @Test
+    void shouldRejectInvalidLimitOrCursor() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasks(TaskFilter.NONE, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasks(TaskFilter.NONE, null, TaskService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasks(TaskFilter.NONE, "not a cursor", 10));
+        TaskFilter backwards = new TaskFilter(null, LocalDate.of(2025, 9, 14), LocalDate.of(2025, 9, 13));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasks(backwards, null, 10));
+    }
+
+    @Test
+    void shouldUpdateTasksInBulk() {
+        Task update = new Task();
+        update.setId(1L);
+        update.setState(State.DOING);
+        when(taskRepository.findAllById(List.of(1L))).thenReturn(List.of(expectedTask));
+        when(taskRepository.saveAll(any())).then(AdditionalAnswers.returnsFirstArg());
+
+        List<Task> updated = taskService.updateTasks(List.of(update));
+
+        assertEquals(1, updated.size());
+        assertEquals(State.DOING, updated.getFirst().getState());
+        assertEquals(expectedTask.getTitle(), updated.getFirst().getTitle());
+    }
+
+    @Test
+    void shouldRejectBulkUpdateIfAnyTaskIsMissing() {
+        Task update = new Task();
+        update.setId(1L);
+        Task missing = new Task();
+        missing.setId(2L);
+        when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(expectedTask));
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.updateTasks(List.of(update, missing)));
+    }
+
+    @Test
+    void shouldRejectEmptyOrOversizedBulkRequests() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(List.of()));
+        List<Task> tooMany = java.util.Collections.nCopies(TaskService.MAX_BULK_SIZE + 1, expectedTask);
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(tooMany));
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        when(taskRepository.findById(1L)).thenReturn(java.util.Optional.of(expectedTask));
+
+        taskService.getTask(1L);
+        Task cached = taskService.getTask(1L);
+
+        assertThat(cached).isEqualTo(expectedTask);
+        verify(taskRepository, times(1)).findById(1L);
+        assertEquals(1, taskService.getCacheStats().hitCount());
+        assertEquals(1, taskService.getCacheStats().missCount());
+    }
+
+    @Test
+    void shouldNotServeStaleTaskAfterUpdate() {
+        Task update = new Task();
+        update.setId(1L);
+        update.setTitle("New Title");
+        when(taskRepository.findById(1L)).thenReturn(java.util.Optional.of(expectedTask));
+        when(taskRepository.save(any(Task.class))).then(AdditionalAnswers.returnsFirstArg());
+
+        taskService.getTask(1L);
+        taskService.updateTask(update);
+        taskService.getTask(1L);
+
+        // the cached instance is never mutated and the entry is reloaded after the write
+        assertEquals("I am a Title", expectedTask.getTitle());
+        verify(taskRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void shouldEvictDeletedTask() {
+        when(taskRepository.findById(1L)).thenReturn(java.util.Optional.of(expectedTask));
+
+        taskService.deleteTask(1L);
+        when(taskRepository.findById(1L)).thenReturn(java.util.Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTask(1L));
+    }
+
+    @Test
+    void shouldPatchTaskWithoutReadingIt() {
+        Task changes = new Task();
+        changes.setState(State.DOING);
+        when(taskRepository.patch(1L, changes)).thenReturn(java.util.Optional.of(expectedTask));
+
+        Task patched = taskService.patchTask(1L, changes);
+
+        assertEquals(State.DOING, patched.getState());
+        assertEquals(expectedTask.getTitle(), patched.getTitle());
+        assertEquals(4L, patched.getVersion());
+        verify(taskRepository, times(0)).findById(1L);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(expectedTask, patched));
+    }
+
+    @Test
+    void shouldFallThroughToArchiveForReadsOnly() {
+        // given
+        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskArchive.get(1L)).thenReturn(Optional.of(expectedTask));
+        Task update = new Task();
+        update.setId(1L);
+        update.setTitle("Changed");
+
+        // when
+        Task actualTask = taskService.getTask(1L);
+
+        // then
+        assertEquals(expectedTask, actualTask);
+        assertThrows(IllegalArgumentException.class, () -> taskService.updateTask(update));
+        assertThrows(IllegalArgumentException.class, () -> taskService.deleteTask(1L));
+        verify(taskRepository, times(0)).save(any());
+        verify(taskRepository, times(0)).delete(any());
+    }
+
+    @Test
+    void shouldTransitionTasksByIdAndCountOutcomes() {
+        // given
+        List<Long> ids = List.of(1L, 2L, 3L, 1L);
+        when(taskRepository.countByIdIn(List.of(1L, 2L, 3L))).thenReturn(2L);
+        when(taskRepository.transitionState(List.of(1L, 2L, 3L), TaskFilter.NONE, State.COMPLETED)).thenReturn(List.of(expectedTask));
+
+        // when
+        TaskTransitionResult result = taskService.transitionTasks(new TaskTransition(ids, null, State.COMPLETED));
+
+        // then
+        assertEquals(new TaskTransitionResult(1, 1, 1), result);
+        ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(expectedTask, event.getValue().before());
+        assertEquals(State.COMPLETED, event.getValue().after().getState());
+        assertEquals(4L, event.getValue().after().getVersion());
+    }
+
+    @Test
+    void shouldTransitionFilteredTasksInChunks() {
+        // given
+        TaskFilter filter = new TaskFilter(State.DOING, null, LocalDate.of(2025, 9, 30));
+        List<Task> firstChunk = new ArrayList<>();
+        for (long id = 1; id <= TaskService.TRANSITION_CHUNK_SIZE; id++) {
+            Task task = new Task();
+            task.setId(id);
+            firstChunk.add(task);
+        }
+        Task last = new Task();
+        last.setId(5000L);
+        when(taskRepository.findPage(filter, 0L, TaskService.TRANSITION_CHUNK_SIZE, Set.of(TaskField.ID))).thenReturn(firstChunk);
+        when(taskRepository.findPage(filter, (long) TaskService.TRANSITION_CHUNK_SIZE, TaskService.TRANSITION_CHUNK_SIZE, Set.of(TaskField.ID)))
+                .thenReturn(List.of(last));
+        when(taskRepository.transitionState(any(), eq(filter), eq(State.COMPLETED))).thenReturn(List.of(expectedTask));
+
+        // when
+        TaskTransitionResult result = taskService.transitionTasks(new TaskTransition(null, filter, State.COMPLETED));
+
+        // then
+        verify(taskRepository, times(2)).transitionState(any(), eq(filter), eq(State.COMPLETED));
+        assertEquals(new TaskTransitionResult(2, TaskService.TRANSITION_CHUNK_SIZE - 1, 0), result);
+    }
+
+    @Test
+    void shouldRejectFilteredTransitionMatchingTooManyTasks() {
+        // given
+        TaskFilter filter = new TaskFilter(State.READY, null, null);
+        List<Task> fullChunk = new ArrayList<>();
+        for (long id = 1; id <= TaskService.TRANSITION_CHUNK_SIZE; id++) {
+            Task task = new Task();
+            task.setId(id);
+            fullChunk.add(task);
+        }
+        when(taskRepository.findPage(eq(filter), anyLong(), eq(TaskService.TRANSITION_CHUNK_SIZE), eq(Set.of(TaskField.ID)))).thenReturn(fullChunk);
+
+        // when
+        assertThrows(IllegalArgumentException.class, () -> taskService.transitionTasks(new TaskTransition(null, filter, State.COMPLETED)));
+
+        // then
+        verify(taskRepository, never()).transitionState(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    void shouldRejectTransitionWithoutExactlyOneSelector() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.transitionTasks(new TaskTransition(null, null, State.COMPLETED)));
+        assertThrows(IllegalArgumentException.class, () -> taskService.transitionTasks(new TaskTransition(List.of(1L), TaskFilter.NONE, State.COMPLETED)));
+        assertThrows(IllegalArgumentException.class, () -> taskService.transitionTasks(new TaskTransition(List.of(1L), null, null)));
+        assertThrows(IllegalArgumentException.class, () -> taskService.transitionTasks(new TaskTransition(List.of(), null, State.COMPLETED)));
+    }
+
+    @Test
+    void shouldThrowExceptionIfPatchedTaskNotFound() {
+        Task changes = new Task();
+        when(taskRepository.patch(999L, changes)).thenReturn(java.util.Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.patchTask(999L, changes));
+    }
+
+    @Test
+    void shouldRejectUpdateOfOutdatedVersion() {
+        Task update = new Task();
+        update.setId(1L);
+        update.setTitle("New Title");
+        update.setVersion(2L);
+        when(taskRepository.findById(1L)).thenReturn(java.util.Optional.of(expectedTask));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> taskService.updateTask(update));
+        verify(taskRepository, times(0)).save(any(Task.class));
+    }
+
+    @Test
+    void shouldReportVersionConflictOnPatchOfExistingTask() {
+        Task changes = new Task();
+        changes.setVersion(2L);
+        when(taskRepository.patch(1L, changes)).thenReturn(java.util.Optional.empty());
+        when(taskRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> taskService.patchTask(1L, changes));
+    }
+
+    @Test
+    void shouldPublishEventsForWrites() {
+        // given
+        Task update = new Task();
+        update.setId(1L);
+        update.setTitle("New Title");
+        when(taskRepository.save(any(Task.class))).then(AdditionalAnswers.returnsFirstArg());
+        when(taskRepository.findById(1L)).thenReturn(java.util.Optional.of(expectedTask));
+
+        // when
+        taskService.createTask(expectedTask);
+        Task updated = taskService.updateTask(update);
+        taskService.deleteTask(1L);
+
+        // then
+        verify(eventPublisher).publishEvent(TaskChangedEvent.created(expectedTask));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(expectedTask, updated));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(expectedTask));
+    }
+
+    @Test
+    void shouldReturnSearchHitsInRankedOrder() {
+        // given
+        Task other = expectedTask.copy();
+        other.setId(2L);
+        when(taskSearchIndex.search(eq("title"), eq(0), anyInt()))
+                .thenReturn(new TaskSearchIndex.SearchHits(new long[]{2L, 1L}, 3));
+        when(taskRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(expectedTask, other));
+
+        // when
+        TaskSearchResult result = taskService.searchTasks("title", null, 2);
+
+        // then
+        assertEquals(List.of(other, expectedTask), result.tasks());
+        assertEquals(3, result.total());
+        assertEquals(2L, TaskCursor.decode(result.next()));
+    }
+
+    @Test
+    void shouldRejectInvalidSearchRequest() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks(" ", null, 20));
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks("title", null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.searchTasks("title", TaskCursor.encode(TaskService.MAX_SEARCH_OFFSET + 1), 20));
+    }
+
+    @Test
+    void shouldReportStatsMismatchAgainstRecount() {
+        // given
+        TaskStats counted = new TaskStats(2, Map.of(State.READY, 2L, State.DOING, 0L, State.COMPLETED, 0L), 1);
+        TaskStats recounted = new TaskStats(1, Map.of(State.READY, 1L, State.DOING, 0L, State.COMPLETED, 0L), 1);
+        when(taskCounters.stats()).thenReturn(counted);
+        when(taskCounters.recount()).thenReturn(recounted, counted);
+
+        // when, then
+        assertFalse(taskService.verifyStats().consistent());
+        assertTrue(taskService.verifyStats().consistent());
+    }
+}
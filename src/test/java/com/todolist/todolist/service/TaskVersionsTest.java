@@ -0,0 +1,57 @@
+package com.todolist.todolist.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskVersionsTest {
+    @Test
+    void shouldOnlyAdvanceToNewerVersions() {
+        // given
+        TaskVersions versions = new TaskVersions(4);
+
+        // when, then
+        assertTrue(versions.advance(1L, 2L));
+        assertFalse(versions.advance(1L, 1L));
+        assertFalse(versions.advance(1L, 2L));
+        assertFalse(versions.advance(1L, null));
+        assertTrue(versions.advance(1L, 3L));
+        assertTrue(versions.advance(2L, null));
+        assertEquals(1, versions.held());
+    }
+
+    @Test
+    void shouldRememberRetiredAndDeletedTasksWithinTheWindow() {
+        // given
+        TaskVersions versions = new TaskVersions(2);
+        versions.advance(1L, 5L);
+        versions.advance(2L, 1L);
+
+        // when
+        versions.retire(1L);
+        versions.delete(2L);
+
+        // then
+        assertEquals(0, versions.held());
+        assertFalse(versions.advance(1L, 4L));
+        assertTrue(versions.advance(1L, 6L));
+        assertFalse(versions.advance(2L, 100L));
+    }
+
+    @Test
+    void shouldBoundTheRetiredWindow() {
+        // given
+        TaskVersions versions = new TaskVersions(3);
+
+        // when
+        for (long id = 1; id <= 1000; id++) {
+            versions.advance(id, 1L);
+            versions.delete(id);
+        }
+
+        // then
+        assertEquals(3, versions.retired());
+        assertFalse(versions.advance(1000L, 2L));
+        assertTrue(versions.advance(1L, 2L));
+    }
+}
@@ -0,0 +1,267 @@
+package com.todolist.todolist.service;
+
+import com.todolist.todolist.dto.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskWriteBatcherTest {
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService clients;
+    private TaskWriteBatcher taskWriteBatcher;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).then(invocation -> new SimpleTransactionStatus());
+        clients = Executors.newFixedThreadPool(20);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        clients.shutdownNow();
+        if (taskWriteBatcher != null) {
+            taskWriteBatcher.stop();
+        }
+    }
+
+    @Test
+    void shouldRunWritesDirectlyWhenDisabled() {
+        // given
+        taskWriteBatcher = new TaskWriteBatcher(transactionManager, false, 256, 500, 10, 1000, 10_000, "jpa");
+        Task task = task("direct");
+
+        // when
+        Task written = taskWriteBatcher.submit(task, input -> input);
+
+        // then
+        assertSame(task, written);
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void shouldGroupConcurrentWritesAndReturnEachCallerItsOwnResult() throws Exception {
+        // given
+        taskWriteBatcher = new TaskWriteBatcher(transactionManager, true, 100, 200_000, 100, 1000, 10_000, "jpa");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Task>> results = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 20; i++) {
+            Task task = task(String.valueOf(i));
+            results.add(clients.submit(() -> {
+                start.await();
+                return taskWriteBatcher.submit(task, input -> {
+                    input.setId(Long.parseLong(input.getTitle()));
+                    return input;
+                });
+            }));
+        }
+        start.countDown();
+
+        // then
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS).getId());
+        }
+        verify(transactionManager, atMost(5)).getTransaction(any());
+    }
+
+    @Test
+    void shouldFailOnlyTheBadWriteOfABatch() throws Exception {
+        // given
+        taskWriteBatcher = new TaskWriteBatcher(transactionManager, true, 100, 200_000, 100, 1000, 10_000, "jpa");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // when
+        for (String title : List.of("first", "bad", "second", "third")) {
+            results.add(clients.submit(() -> {
+                start.await();
+                return taskWriteBatcher.submit(task(title), input -> {
+                    if (input.getTitle().equals("bad")) {
+                        throw new IllegalArgumentException("Rejected " + input.getTitle());
+                    }
+                    return input.getTitle();
+                });
+            }));
+        }
+        start.countDown();
+
+        // then
+        assertEquals("first", results.get(0).get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> results.get(1).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        assertEquals("second", results.get(2).get(5, TimeUnit.SECONDS));
+        assertEquals("third", results.get(3).get(5, TimeUnit.SECONDS));
+        verify(transactionManager, atLeastOnce()).rollback(any());
+    }
+
+    @Test
+    void shouldCommitWritesToTheSameTaskInSeparateRounds() throws Exception {
+        // given a store that, like the database, only shows a write to others once it has committed
+        Map<Long, Long> committed = new ConcurrentHashMap<>(Map.of(1L, 0L));
+        Map<Long, Long> staged = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            committed.putAll(staged);
+            staged.clear();
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(invocation -> {
+            staged.clear();
+            return null;
+        }).when(transactionManager).rollback(any());
+        taskWriteBatcher = new TaskWriteBatcher(transactionManager, true, 100, 200_000, 100, 1000, 10_000, "jpa");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+
+        // when two updates sent with If-Match: 0 arrive in the same batch
+        for (String title : List.of("first", "second")) {
+            Task task = task(title);
+            task.setId(1L);
+            task.setVersion(0L);
+            results.add(clients.submit(() -> {
+                start.await();
+                return taskWriteBatcher.submit(task, input -> {
+                    long current = committed.get(input.getId());
+                    if (current != input.getVersion()) {
+                        throw new OptimisticLockingFailureException("Task is at version " + current);
+                    }
+                    staged.put(input.getId(), current + 1);
+                    return current + 1;
+                });
+            }));
+        }
+        start.countDown();
+
+        // then exactly one of them wins
+        int succeeded = 0;
+        int conflicted = 0;
+        for (Future<Long> result : results) {
+            try {
+                assertEquals(1L, result.get(5, TimeUnit.SECONDS));
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(OptimisticLockingFailureException.class, e.getCause());
+                conflicted++;
+            }
+        }
+        assertEquals(1, succeeded);
+        assertEquals(1, conflicted);
+        assertEquals(1L, committed.get(1L));
+    }
+
+    @Test
+    void shouldRejectWritesWhenQueueIsFull() throws Exception {
+        // given
+        taskWriteBatcher = new TaskWriteBatcher(transactionManager, true, 1, 0, 1, 10, 10_000, "jpa");
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> blocking = CompletableFuture.supplyAsync(() -> taskWriteBatcher.submit(task("blocking"), input -> {
+            flushing.countDown();
+            awaitQuietly(release);
+            return input.getTitle();
+        }), clients);
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(
+                () -> taskWriteBatcher.submit(task("queued"), Task::getTitle), clients);
+        Thread.sleep(100);
+
+        // when, then
+        assertThrows(RejectedExecutionException.class, () -> taskWriteBatcher.submit(task("rejected"), Task::getTitle));
+        release.countDown();
+        assertEquals("blocking", blocking.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldKeepFlushingAfterABatchThrowsAnError() {
+        // given
+        taskWriteBatcher = new TaskWriteBatcher(transactionManager, true, 1, 0, 10, 1000, 10_000, "jpa");
+
+        // when
+        assertThrows(AssertionError.class, () -> taskWriteBatcher.submit(task("broken"), input -> {
+            throw new AssertionError("Broken write");
+        }));
+        String written = taskWriteBatcher.submit(task("next"), Task::getTitle);
+
+        // then
+        assertEquals("next", written);
+    }
+
+    @Test
+    void shouldRejectWritesThatDoNotCommitInTime() throws Exception {
+        // given
+        taskWriteBatcher = new TaskWriteBatcher(transactionManager, true, 1, 0, 10, 1000, 100, "jpa");
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> stalled = CompletableFuture.supplyAsync(() -> taskWriteBatcher.submit(task("stalled"), input -> {
+            flushing.countDown();
+            awaitQuietly(release);
+            return input.getTitle();
+        }), clients);
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        List<String> performed = new ArrayList<>();
+
+        // when
+        assertThrows(RejectedExecutionException.class, () -> taskWriteBatcher.submit(task("waiting"), input -> {
+            performed.add(input.getTitle());
+            return input.getTitle();
+        }));
+        release.countDown();
+
+        // then both callers were turned away, and the write that never started is dropped
+        ExecutionException timedOut = assertThrows(ExecutionException.class, () -> stalled.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, timedOut.getCause());
+        assertEquals("after", taskWriteBatcher.submit(task("after"), Task::getTitle));
+        assertEquals(List.of(), performed);
+    }
+
+    @Test
+    void shouldRefuseToBatchWritesToTheLogEngine() {
+        assertThrows(IllegalStateException.class,
+                () -> new TaskWriteBatcher(transactionManager, true, 256, 500, 10, 1000, 10_000, "log"));
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}